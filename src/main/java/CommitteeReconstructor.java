@@ -0,0 +1,146 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.util.BitSet;
+
+/**
+ * Reconstruction engine bound to a committee whose participants hold the integer points 1..n.
+ * <p>
+ * Every difference x_j - x_i between two participants is a non-zero integer of absolute value below n, so
+ * the inverses of 1..n are tabulated once, from factorials and a single inversion. So are the barycentric
+ * weights of the full domain,
+ * <p>
+ * w_i = 1 / Π_{j ≠ i} (j - i) = (-1)^(i-1) / ((i-1)! (n-i)!)
+ * <p>
+ * The Lagrange coefficient at zero of x_i in a quorum S is then
+ * <p>
+ * λ_i = (Π_{j in S} x_j) * x_i^-1 * Π_{j in S, j ≠ i} (x_j - x_i)^-1
+ * <p>
+ * where the last product is either looked up factor by factor, or obtained as w_i * Π_{j not in S} (j - i)
+ * when fewer participants are missing than present. A quorum of size k thus costs O(k * min(k, n - k))
+ * multiplications and no inversion at all. The tables and the arithmetic live in the limb-based
+ * {@link MontgomeryZr} engine; only the coefficients are converted into JPBC elements.
+ */
+final class CommitteeReconstructor {
+
+    /**
+     * The Zr arithmetic engine.
+     * Size n of the committee.
+     * The integers 1..n, and their inverses, indexed by the integer.
+     * Barycentric weights w_1..w_n of the full domain, indexed by the participant.
+     */
+    private final MontgomeryZr field;
+    private final int size;
+    private final long[][] integers;
+    private final long[][] inverses;
+    private final long[][] weights;
+
+    /**
+     * Precomputes the inverse and weight tables for the committee 1..n.
+     *
+     * @param field The Zr arithmetic engine.
+     * @param size  The committee size n. Must be positive and smaller than the order of Zr.
+     */
+    CommitteeReconstructor(MontgomeryZr field, int size) {
+        this.field = field;
+        this.size = size;
+
+        this.integers = new long[size + 1][];
+        integers[0] = field.newZero();
+        for (int i = 1; i <= size; i++) {
+            integers[i] = field.newZero();
+            field.add(integers[i - 1], field.newOne(), integers[i]);
+        }
+
+        // factorials[i] = i!, and inverseFactorials[i] = (i!)^-1 from a single inversion of n!.
+        long[][] factorials = new long[size + 1][];
+        factorials[0] = field.newOne();
+        for (int i = 1; i <= size; i++) {
+            factorials[i] = field.newZero();
+            field.mul(factorials[i - 1], integers[i], factorials[i]);
+        }
+        long[][] inverseFactorials = new long[size + 1][];
+        inverseFactorials[size] = field.newZero();
+        field.invert(factorials[size], inverseFactorials[size]);
+        for (int i = size; i > 0; i--) {
+            inverseFactorials[i - 1] = field.newZero();
+            field.mul(inverseFactorials[i], integers[i], inverseFactorials[i - 1]);
+        }
+
+        // i^-1 = (i-1)! / i!
+        this.inverses = new long[size + 1][];
+        for (int i = 1; i <= size; i++) {
+            inverses[i] = field.newZero();
+            field.mul(inverseFactorials[i], factorials[i - 1], inverses[i]);
+        }
+
+        // w_i = (-1)^(i-1) / ((i-1)! (n-i)!)
+        this.weights = new long[size + 1][];
+        for (int i = 1; i <= size; i++) {
+            weights[i] = field.newZero();
+            field.mul(inverseFactorials[i - 1], inverseFactorials[size - i], weights[i]);
+            if ((i - 1) % 2 != 0) {
+                field.negate(weights[i], weights[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the committee size n.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Computes the Lagrange coefficients at zero for a quorum of the committee.
+     *
+     * @param indices The distinct participant indices of the quorum, each in 1..n.
+     * @return The coefficients λ_i, in the order of the indices.
+     * @throws IllegalArgumentException if an index lies outside 1..n or is repeated.
+     */
+    Element[] lagrangeAtZero(int[] indices) {
+        int k = indices.length;
+        BitSet present = new BitSet(size + 1);
+        long[] product = field.newOne();
+        for (int index : indices) {
+            if (index < 1 || index > size) {
+                throw new IllegalArgumentException("Index " + index + " lies outside the committee 1.." + size + ".");
+            }
+            if (present.get(index)) {
+                throw new IllegalArgumentException("Interpolation points must be distinct.");
+            }
+            present.set(index);
+            field.mul(product, integers[index], product);
+        }
+
+        Element[] lambdas = new Element[k];
+        long[] lambda = field.newZero();
+        boolean viaComplement = size - k < k - 1;
+        for (int a = 0; a < k; a++) {
+            int i = indices[a];
+            field.mul(product, inverses[i], lambda);
+            boolean negative = false;
+            if (viaComplement) {
+                // Π_{j in S, j ≠ i} (x_j - x_i)^-1 = w_i * Π_{j not in S} (j - i)
+                field.mul(lambda, weights[i], lambda);
+                for (int j = present.nextClearBit(1); j <= size; j = present.nextClearBit(j + 1)) {
+                    field.mul(lambda, integers[Math.abs(j - i)], lambda);
+                    negative ^= j < i;
+                }
+            } else {
+                for (int b = 0; b < k; b++) {
+                    int difference = indices[b] - i;
+                    if (difference != 0) {
+                        field.mul(lambda, inverses[Math.abs(difference)], lambda);
+                        negative ^= difference < 0;
+                    }
+                }
+            }
+            if (negative) {
+                field.negate(lambda, lambda);
+            }
+            lambdas[a] = field.toElement(lambda);
+        }
+        return lambdas;
+    }
+}
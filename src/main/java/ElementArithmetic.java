@@ -0,0 +1,58 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+/**
+ * Group arithmetic on JPBC elements themselves, used for every group without a dedicated implementation.
+ * Each internal value is a private mutable element.
+ */
+final class ElementArithmetic implements GroupArithmetic<Element> {
+
+    /**
+     * The group.
+     */
+    private final Field<?> field;
+
+    ElementArithmetic(Field<?> field) {
+        this.field = field;
+    }
+
+    @Override
+    public Element fromElement(Element element) {
+        return element.duplicate();
+    }
+
+    @Override
+    public Element toElement(Element value) {
+        return value.duplicate();
+    }
+
+    @Override
+    public Element identity() {
+        return field.newOneElement();
+    }
+
+    @Override
+    public Element copy(Element value) {
+        return value.duplicate();
+    }
+
+    @Override
+    public void mul(Element accumulator, Element operand) {
+        accumulator.mul(operand);
+    }
+
+    @Override
+    public void square(Element accumulator) {
+        accumulator.square();
+    }
+
+    @Override
+    public void invert(Element accumulator) {
+        accumulator.invert();
+    }
+
+    @Override
+    public boolean isEqual(Element a, Element b) {
+        return a.isEqual(b);
+    }
+}
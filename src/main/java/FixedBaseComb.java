@@ -0,0 +1,158 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Joint fixed-base comb for the two Pedersen generators g and h.
+ * <p>
+ * The exponent is split into {@code TEETH} rows of {@code spacing} bits, and for each base a table of
+ * all 2^TEETH combinations of B^(2^(k * spacing)) is built once. Evaluating g^a * h^b then walks the
+ * {@code spacing} columns from the top, doing one doubling shared by both bases and at most one table
+ * lookup per base, instead of two full variable-base exponentiations.
+ * <p>
+ * Reference:
+ * Lim, Chae Hoon, and Pil Joong Lee. "More flexible exponentiation with precomputation."
+ * Annual International Cryptology Conference. Berlin, Heidelberg: Springer Berlin Heidelberg, 1994.
+ *
+ * @param <P> The internal representation of group elements, see {@link GroupArithmetic}.
+ */
+final class FixedBaseComb<P> {
+
+    /**
+     * Number of comb teeth, i.e. bits of the exponent consumed per table lookup.
+     */
+    private static final int TEETH = 8;
+
+    /**
+     * Arithmetic of the group of g and h.
+     * Distance in bits between two teeth of the comb.
+     * Precomputed tables for g and h, indexed by the TEETH-bit column of the exponent.
+     */
+    private final GroupArithmetic<P> group;
+    private final int spacing;
+    private final List<P> gTable;
+    private final List<P> hTable;
+
+    /**
+     * Builds the comb tables for g and h.
+     *
+     * @param group The arithmetic of the group of g and h.
+     * @param g     The first generator.
+     * @param h     The second generator.
+     * @param bits  The bit length of the exponents, i.e. the bit length of the group order.
+     */
+    FixedBaseComb(GroupArithmetic<P> group, Element g, Element h, int bits) {
+        this.group = group;
+        this.spacing = (bits + TEETH - 1) / TEETH;
+        this.gTable = buildTable(group.fromElement(g));
+        this.hTable = buildTable(group.fromElement(h));
+    }
+
+    /**
+     * Returns the arithmetic of the group of g and h.
+     */
+    GroupArithmetic<P> arithmetic() {
+        return group;
+    }
+
+    /**
+     * Computes g^a * h^b.
+     *
+     * @param a The exponent of g.
+     * @param b The exponent of h.
+     * @return A new element holding g^a * h^b.
+     */
+    Element pow(Element a, Element b) {
+        return pow(a.toBigInteger(), b.toBigInteger());
+    }
+
+    /**
+     * Computes g^(a_i) * h^(b_i) for every pair of exponents, converting all results together.
+     *
+     * @param a The exponents of g.
+     * @param b The exponents of h, as many as of g.
+     * @return New elements holding the products, in order.
+     */
+    List<Element> powAll(List<Element> a, List<Element> b) {
+        List<P> results = new ArrayList<>(a.size());
+        for (int i = 0; i < a.size(); i++) {
+            results.add(powInternal(a.get(i).toBigInteger(), b.get(i).toBigInteger()));
+        }
+        return group.toElements(results);
+    }
+
+    /**
+     * Computes g^a * h^b for exponents already reduced modulo the group order.
+     *
+     * @param a The exponent of g.
+     * @param b The exponent of h.
+     * @return A new element holding g^a * h^b.
+     */
+    Element pow(BigInteger a, BigInteger b) {
+        return group.toElement(powInternal(a, b));
+    }
+
+    /**
+     * Computes g^a * h^b in the internal representation of the group.
+     *
+     * @param a The exponent of g.
+     * @param b The exponent of h.
+     * @return A new value holding g^a * h^b.
+     */
+    P powInternal(BigInteger a, BigInteger b) {
+        P result = group.identity();
+        for (int column = spacing - 1; column >= 0; column--) {
+            group.square(result);
+            int gIndex = columnIndex(a, column);
+            if (gIndex != 0) {
+                group.mul(result, gTable.get(gIndex));
+            }
+            int hIndex = columnIndex(b, column);
+            if (hIndex != 0) {
+                group.mul(result, hTable.get(hIndex));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the table T[j] = Π B^(2^(k * spacing)) over the set bits k of j, normalized for use as
+     * operands. The entries are never modified afterwards, so the table may be shared between threads.
+     */
+    private List<P> buildTable(P base) {
+        List<P> table = new ArrayList<>(1 << TEETH);
+        table.add(group.identity());
+
+        // Teeth B^(2^(k * spacing)) for k = 0..TEETH-1.
+        P tooth = base;
+        for (int k = 0; k < TEETH; k++) {
+            int offset = 1 << k;
+            for (int j = 0; j < offset; j++) {
+                P entry = group.copy(table.get(j));
+                group.mul(entry, tooth);
+                table.add(entry);
+            }
+            for (int i = 0; i < spacing; i++) {
+                group.square(tooth);
+            }
+        }
+        group.normalize(table);
+        return table;
+    }
+
+    /**
+     * Gathers bits column, column + spacing, ..., of the exponent into a table index.
+     */
+    private int columnIndex(BigInteger exponent, int column) {
+        int index = 0;
+        for (int k = TEETH - 1; k >= 0; k--) {
+            index <<= 1;
+            if (exponent.testBit(column + k * spacing)) {
+                index |= 1;
+            }
+        }
+        return index;
+    }
+}
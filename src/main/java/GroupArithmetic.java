@@ -0,0 +1,89 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group operations on an internal representation P of group elements, written multiplicatively.
+ * <p>
+ * The exponentiation engines run on this interface and convert to and from JPBC elements only at their
+ * boundaries. {@link #of(Field)} picks the dedicated Jacobian arithmetic of {@link TypeACurve} for the G1
+ * group of a Type A pairing, and JPBC's own element operations for every other group, such as GT.
+ * Operations on P values mutate their first argument, like JPBC's mul and square.
+ *
+ * @param <P> The internal representation of a group element.
+ */
+interface GroupArithmetic<P> {
+
+    /**
+     * Converts a JPBC element into a new internal value. The element is not modified.
+     */
+    P fromElement(Element element);
+
+    /**
+     * Converts an internal value into a new JPBC element.
+     */
+    Element toElement(P value);
+
+    /**
+     * Converts internal values into new JPBC elements. Implementations may share work between the values,
+     * and may change their representation but not the elements they represent.
+     */
+    default List<Element> toElements(List<P> values) {
+        List<Element> elements = new ArrayList<>(values.size());
+        for (P value : values) {
+            elements.add(toElement(value));
+        }
+        return elements;
+    }
+
+    /**
+     * Rewrites values into the representation that is cheapest to use as the operand of
+     * {@link #mul(Object, Object)}, without changing the elements they represent. Meant for tables that are
+     * built once and read many times.
+     */
+    default void normalize(List<P> values) {
+    }
+
+    /**
+     * Returns a new identity element.
+     */
+    P identity();
+
+    /**
+     * Returns a new copy of a value.
+     */
+    P copy(P value);
+
+    /**
+     * Sets accumulator = accumulator * operand.
+     */
+    void mul(P accumulator, P operand);
+
+    /**
+     * Sets accumulator = accumulator^2.
+     */
+    void square(P accumulator);
+
+    /**
+     * Sets accumulator = accumulator^-1.
+     */
+    void invert(P accumulator);
+
+    /**
+     * Returns whether two values represent the same group element.
+     */
+    boolean isEqual(P a, P b);
+
+    /**
+     * Returns the arithmetic for the group of the given field.
+     *
+     * @param field The group, e.g. G1 or GT.
+     * @return The dedicated Type A arithmetic if it applies, JPBC's element arithmetic otherwise.
+     */
+    static GroupArithmetic<?> of(Field<?> field) {
+        TypeACurve curve = TypeACurve.forField(field);
+        return curve != null ? curve : new ElementArithmetic(field);
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Adaptive group-testing verifier that locates the invalid shares of a batch whose combined check failed.
+ * <p>
+ * The batch is split in halves and only the left half is checked: if it passes, the right half must contain
+ * an invalid share and is recursed into without being checked; otherwise both halves are examined. Finding
+ * k invalid shares among n therefore costs O(k log n) batch checks instead of n individual verifications.
+ * Skipping the right half relies on the batch check being sound, so callers must first make sure that the
+ * commitments lie in the subgroup of prime order r.
+ */
+final class GroupTestingVerifier {
+
+    /**
+     * The combined check applied to a sub-batch. It must return true if and only if all shares pass.
+     */
+    private final Predicate<List<PedersenVSS.Share>> batchCheck;
+
+    /**
+     * Creates a verifier on top of the given combined check.
+     *
+     * @param batchCheck The combined check applied to a sub-batch.
+     */
+    GroupTestingVerifier(Predicate<List<PedersenVSS.Share>> batchCheck) {
+        this.batchCheck = batchCheck;
+    }
+
+    /**
+     * Finds the invalid shares of a batch.
+     *
+     * @param shares The shares to be examined.
+     * @return The positions in {@code shares} of the invalid shares, in increasing order.
+     */
+    List<Integer> findInvalid(List<PedersenVSS.Share> shares) {
+        List<Integer> invalid = new ArrayList<>();
+        if (!shares.isEmpty() && !batchCheck.test(shares)) {
+            bisect(shares, 0, shares.size(), invalid);
+        }
+        return invalid;
+    }
+
+    /**
+     * Collects the invalid shares in [from, to), a range already known to contain at least one.
+     */
+    private void bisect(List<PedersenVSS.Share> shares, int from, int to, List<Integer> invalid) {
+        if (to - from == 1) {
+            invalid.add(from);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        if (batchCheck.test(shares.subList(from, middle))) {
+            // The left half is clean, so the failure lies entirely in the right half.
+            bisect(shares, middle, to, invalid);
+            return;
+        }
+        bisect(shares, from, middle, invalid);
+        if (!batchCheck.test(shares.subList(middle, to))) {
+            bisect(shares, middle, to, invalid);
+        }
+    }
+}
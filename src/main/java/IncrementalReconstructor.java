@@ -0,0 +1,180 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Reconstructs a secret from shares arriving one at a time, in Newton form.
+ * <p>
+ * With the accepted points x_0, ..., x_{k-1}, the interpolating polynomial is
+ * <p>
+ * p(X) = c_0 + c_1 (X - x_0) + ... + c_{k-1} (X - x_0) ... (X - x_{k-2})
+ * <p>
+ * where c_j = f[x_0, ..., x_j] are divided differences. Adding a point only appends a term: its divided
+ * differences f[x_j, ..., x_k] are derived from the previous ones, with all k differences x_k - x_j inverted
+ * together by Montgomery's trick, and p(0) gains c_k Π_{j < k} (-x_j). Each arrival thus costs O(k)
+ * multiplications and one inversion, and the secret is available as soon as the t-th share is accepted.
+ * The state is kept in the limb-based {@link MontgomeryZr} engine.
+ * <p>
+ * Instances are thread-safe. Arriving shares are validated outside the lock, so concurrent arrivals are
+ * verified in parallel and only the O(k) update of the divided differences is serialized.
+ */
+public final class IncrementalReconstructor {
+
+    /**
+     * The Zr arithmetic engine.
+     * The threshold t.
+     * Maps a participant index to its point.
+     * Decides whether an arriving share is accepted.
+     */
+    private final MontgomeryZr field;
+    private final int threshold;
+    private final IntFunction<BigInteger> points;
+    private final Predicate<PedersenVSS.Share> validator;
+
+    /**
+     * Indices of the accepted shares.
+     * The accepted points x_0, ..., x_{k-1}.
+     * Divided differences f[x_j, ..., x_{k-1}] for j = 0..k-1, the last diagonal of the table.
+     * Π_{j < k} (-x_j), the Newton basis polynomial of the next term at zero.
+     * p(0) for the points accepted so far.
+     */
+    private final Set<Integer> indices = new HashSet<>();
+    private final long[][] accepted;
+    private final long[][] differences;
+    private final long[] basisAtZero;
+    private final long[] valueAtZero;
+    private int size;
+
+    /**
+     * Creates an empty reconstructor.
+     *
+     * @param field     The Zr arithmetic engine.
+     * @param threshold The threshold t. Must be positive.
+     * @param points    Maps a participant index to its point.
+     * @param validator Decides whether an arriving share is accepted.
+     */
+    IncrementalReconstructor(MontgomeryZr field, int threshold, IntFunction<BigInteger> points,
+                             Predicate<PedersenVSS.Share> validator) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive.");
+        }
+        this.field = field;
+        this.threshold = threshold;
+        this.points = points;
+        this.validator = validator;
+        this.accepted = new long[threshold][];
+        this.differences = new long[threshold][];
+        this.basisAtZero = field.newOne();
+        this.valueAtZero = field.newZero();
+    }
+
+    /**
+     * Offers an arriving share.
+     *
+     * @param share The share.
+     * @return true if the share was accepted, false if it was rejected by the validator or the secret is
+     * already complete.
+     * @throws IllegalArgumentException if a share with the same index was already accepted.
+     */
+    public boolean add(PedersenVSS.Share share) {
+        synchronized (this) {
+            if (!admits(share)) {
+                return false;
+            }
+        }
+        long[] x = field.fromBigInteger(points.apply(share.index()));
+        if (!validator.test(share)) {
+            return false;
+        }
+        synchronized (this) {
+            // Another arrival may have completed the secret or taken the index while this one was validated.
+            if (!admits(share)) {
+                return false;
+            }
+            append(share, x);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a share could still be accepted, i.e. fewer than t shares are held.
+     *
+     * @throws IllegalArgumentException if a share with the same index was already accepted.
+     */
+    private boolean admits(PedersenVSS.Share share) {
+        if (size == threshold) {
+            return false;
+        }
+        if (indices.contains(share.index())) {
+            throw new IllegalArgumentException("A share with index " + share.index() + " was already accepted.");
+        }
+        return true;
+    }
+
+    /**
+     * Appends a validated share at point x to the Newton form. Must be called with the lock held.
+     */
+    private void append(PedersenVSS.Share share, long[] x) {
+        // Inverses of x_k - x_j for all accepted j, with a single inversion.
+        int k = size;
+        long[][] inverses = new long[k][];
+        for (int j = 0; j < k; j++) {
+            inverses[j] = field.newZero();
+            field.sub(x, accepted[j], inverses[j]);
+        }
+        field.batchInvert(inverses);
+
+        // f[x_j, ..., x_k] = (f[x_{j+1}, ..., x_k] - f[x_j, ..., x_{k-1}]) / (x_k - x_j), from j = k down to 0.
+        long[] next = field.fromElement(share.value1());
+        for (int j = k - 1; j >= 0; j--) {
+            long[] previous = differences[j];
+            differences[j + 1] = next;
+            next = field.newZero();
+            field.sub(differences[j + 1], previous, next);
+            field.mul(next, inverses[j], next);
+        }
+        differences[0] = next;
+
+        // p(0) += c_k * Π_{j < k} (-x_j), where c_k = f[x_0, ..., x_k].
+        long[] term = field.newZero();
+        field.mul(next, basisAtZero, term);
+        field.add(valueAtZero, term, valueAtZero);
+        field.mul(basisAtZero, x, basisAtZero);
+        field.negate(basisAtZero, basisAtZero);
+
+        accepted[k] = x;
+        indices.add(share.index());
+        size++;
+    }
+
+    /**
+     * Returns whether t shares have been accepted.
+     */
+    public synchronized boolean isComplete() {
+        return size == threshold;
+    }
+
+    /**
+     * Returns the number of shares accepted so far.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the reconstructed secret.
+     *
+     * @return The secret f(0).
+     * @throws IllegalStateException if fewer than t shares have been accepted.
+     */
+    public synchronized Element secret() {
+        if (size < threshold) {
+            throw new IllegalStateException("Only " + size + " of " + threshold + " shares have been accepted.");
+        }
+        return field.toElement(valueAtZero);
+    }
+}
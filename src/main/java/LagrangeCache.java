@@ -0,0 +1,111 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded least-recently-used cache of Lagrange-at-zero coefficient vectors, keyed by the sorted set of
+ * participant indices of a quorum.
+ * <p>
+ * Recovery workloads reconstruct many secrets from the same few quorums, so repeated quorums skip the
+ * coefficient computation and cost only the k multiply-adds of the interpolation itself. Lookups are
+ * thread-safe; a coefficient vector missing from the cache is computed outside the lock, so concurrent
+ * misses on the same quorum may compute it twice but never block other lookups.
+ */
+final class LagrangeCache {
+
+    /**
+     * Maximum number of quorums kept.
+     * Coefficient vectors in access order, for sorted index sets.
+     * Number of lookups answered from the cache, and number of lookups that had to compute.
+     */
+    private final int capacity;
+    private final Map<Quorum, Element[]> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The maximum number of quorums kept.
+     */
+    LagrangeCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Quorum, Element[]> eldest) {
+                return size() > LagrangeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the Lagrange coefficients at zero for a quorum, computing and caching them on a miss.
+     *
+     * @param indices The participant indices of the quorum, in any order.
+     * @param compute Computes the coefficients for indices given in increasing order.
+     * @return The coefficients, in the order of the given indices. The elements are immutable.
+     */
+    Element[] get(int[] indices, Function<int[], Element[]> compute) {
+        int[] sorted = indices.clone();
+        Arrays.sort(sorted);
+        Quorum quorum = new Quorum(sorted);
+
+        Element[] coefficients;
+        synchronized (entries) {
+            coefficients = entries.get(quorum);
+        }
+        if (coefficients != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            coefficients = compute.apply(sorted);
+            for (int i = 0; i < coefficients.length; i++) {
+                coefficients[i] = coefficients[i].getImmutable();
+            }
+            synchronized (entries) {
+                entries.put(quorum, coefficients);
+            }
+        }
+
+        // Map the sorted coefficients back to the caller's order.
+        Element[] result = new Element[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[i] = coefficients[Arrays.binarySearch(sorted, indices[i])];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     */
+    long hits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to compute the coefficients.
+     */
+    long misses() {
+        return misses.get();
+    }
+
+    /**
+     * A sorted set of participant indices, compared by content.
+     */
+    private record Quorum(int[] indices) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Quorum quorum && Arrays.equals(indices, quorum.indices);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(indices);
+        }
+    }
+}
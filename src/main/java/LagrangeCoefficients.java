@@ -0,0 +1,103 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.math.BigInteger;
+
+/**
+ * Computation of Lagrange coefficients at zero with a single field inversion.
+ * <p>
+ * For points x_1, ..., x_k the coefficient of x_i is
+ * <p>
+ * λ_i = Π_{j ≠ i} (0 - x_j) / Π_{j ≠ i} (x_i - x_j)
+ * <p>
+ * Numerator and denominator are accumulated per point, and all k denominators are inverted together with
+ * Montgomery's trick, so the k * (k - 1) pairwise inversions become one inversion and O(k^2) multiplications.
+ * The arithmetic runs on the limb-based {@link MontgomeryZr} engine; only the results are converted into
+ * JPBC elements.
+ */
+final class LagrangeCoefficients {
+
+    private LagrangeCoefficients() {
+    }
+
+    /**
+     * Computes the Lagrange coefficients at zero for the given points.
+     *
+     * @param field  The Zr arithmetic engine.
+     * @param points The distinct interpolation points.
+     * @return The coefficients λ_1, ..., λ_k, in the order of the points.
+     * @throws IllegalArgumentException if two points coincide.
+     */
+    static Element[] atZero(MontgomeryZr field, BigInteger[] points) {
+        int k = points.length;
+        long[][] x = new long[k][];
+        for (int i = 0; i < k; i++) {
+            x[i] = field.fromBigInteger(points[i]);
+        }
+
+        long[][] numerators = new long[k][];
+        long[][] denominators = new long[k][];
+        long[] difference = field.newZero();
+        for (int i = 0; i < k; i++) {
+            numerators[i] = field.newOne();
+            denominators[i] = field.newOne();
+            for (int j = 0; j < k; j++) {
+                if (i != j) {
+                    // numerator *= (0 - x_j), denominator *= (x_i - x_j)
+                    field.negate(x[j], difference);
+                    field.mul(numerators[i], difference, numerators[i]);
+                    field.sub(x[i], x[j], difference);
+                    field.mul(denominators[i], difference, denominators[i]);
+                }
+            }
+            if (field.isZero(denominators[i])) {
+                throw new IllegalArgumentException("Interpolation points must be distinct.");
+            }
+        }
+
+        field.batchInvert(denominators);
+        Element[] lambdas = new Element[k];
+        for (int i = 0; i < k; i++) {
+            field.mul(numerators[i], denominators[i], numerators[i]);
+            lambdas[i] = field.toElement(numerators[i]);
+        }
+        return lambdas;
+    }
+
+    /**
+     * Computes the barycentric weights of the given points,
+     * <p>
+     * v_i = 1 / Π_{j ≠ i} (x_i - x_j)
+     * <p>
+     * again with a single inversion. They are also the column multipliers of the dual of the Reed-Solomon
+     * code evaluated at these points.
+     *
+     * @param field  The Zr arithmetic engine.
+     * @param points The distinct points.
+     * @return The weights v_1, ..., v_k in Montgomery form, in the order of the points.
+     * @throws IllegalArgumentException if two points coincide.
+     */
+    static long[][] weights(MontgomeryZr field, BigInteger[] points) {
+        int k = points.length;
+        long[][] x = new long[k][];
+        for (int i = 0; i < k; i++) {
+            x[i] = field.fromBigInteger(points[i]);
+        }
+
+        long[][] weights = new long[k][];
+        long[] difference = field.newZero();
+        for (int i = 0; i < k; i++) {
+            weights[i] = field.newOne();
+            for (int j = 0; j < k; j++) {
+                if (i != j) {
+                    field.sub(x[i], x[j], difference);
+                    field.mul(weights[i], difference, weights[i]);
+                }
+            }
+            if (field.isZero(weights[i])) {
+                throw new IllegalArgumentException("Interpolation points must be distinct.");
+            }
+        }
+        field.batchInvert(weights);
+        return weights;
+    }
+}
@@ -0,0 +1,337 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Arithmetic modulo an odd prime p on fixed-width 64-bit limbs in Montgomery form, shared by the scalar
+ * field engine {@link MontgomeryZr} and the base field engine {@link MontgomeryFq}.
+ * <p>
+ * A value a is held as the little-endian limbs of a * R mod p, with R = 2^(64 * limbs). Multiplication is
+ * Montgomery's coarsely integrated operand scanning (CIOS) reduction, which computes a * b * R^-1 mod p
+ * with word operations only and no division, and keeps its accumulator in a per-thread scratch array.
+ * Addition, subtraction, negation, multiplication and squaring therefore allocate nothing. Inversion is
+ * left to the subclasses, which pick the method that suits their modulus; batch inversion builds on it
+ * with Montgomery's trick and allocates its k prefix products.
+ * <p>
+ * Values are plain long[] arrays and every operation writes into a caller-supplied output, which may alias
+ * an input. Instances are immutable and thread-safe.
+ * <p>
+ * Reference:
+ * Koç, Çetin Kaya, Tolga Acar, and Burton S. Kaliski. "Analyzing and comparing Montgomery multiplication
+ * algorithms." IEEE Micro 16.3 (1996): 26-33.
+ */
+abstract class MontgomeryArithmetic {
+
+    /**
+     * The modulus p, as an integer and as limbs.
+     * -p^-1 mod 2^64.
+     * R mod p and R^2 mod p, as limbs: one in Montgomery form, and the factor converting into it.
+     * Accumulator of the multiplication, one per thread so that instances stay thread-safe.
+     */
+    private final BigInteger order;
+    final long[] modulus;
+    final long inverse;
+    private final long[] one;
+    final long[] rSquared;
+    private final ThreadLocal<long[]> accumulator;
+
+    /**
+     * Creates the arithmetic modulo p on the given number of limbs.
+     *
+     * @param p     The odd prime modulus.
+     * @param limbs The number of 64-bit limbs of a value.
+     * @throws IllegalArgumentException if p is even or does not fit in the limbs.
+     */
+    MontgomeryArithmetic(BigInteger p, int limbs) {
+        if (p.bitLength() > 64 * limbs || !p.testBit(0)) {
+            throw new IllegalArgumentException("Modulus must be odd and at most " + 64 * limbs + " bits.");
+        }
+        this.order = p;
+        this.modulus = limbs(p, limbs);
+
+        // Newton iteration for p^-1 mod 2^64, doubling the number of correct bits each step.
+        long p0 = modulus[0];
+        long x = p0;
+        for (int i = 0; i < 6; i++) {
+            x *= 2 - p0 * x;
+        }
+        this.inverse = -x;
+
+        BigInteger radix = BigInteger.ONE.shiftLeft(64 * limbs);
+        this.one = limbs(radix.mod(p), limbs);
+        this.rSquared = limbs(radix.multiply(radix).mod(p), limbs);
+        this.accumulator = ThreadLocal.withInitial(() -> new long[limbs + 2]);
+    }
+
+    /**
+     * Returns the modulus p.
+     */
+    BigInteger order() {
+        return order;
+    }
+
+    /**
+     * Returns a new zero.
+     */
+    long[] newZero() {
+        return new long[modulus.length];
+    }
+
+    /**
+     * Returns a new one.
+     */
+    long[] newOne() {
+        return one.clone();
+    }
+
+    /**
+     * Converts an integer into Montgomery form.
+     *
+     * @param value The integer, reduced modulo p.
+     * @return A new value.
+     */
+    long[] fromBigInteger(BigInteger value) {
+        long[] result = limbs(value.mod(order), modulus.length);
+        mul(result, rSquared, result);
+        return result;
+    }
+
+    /**
+     * Converts a value out of Montgomery form.
+     *
+     * @param a The value.
+     * @return The integer in [0, p).
+     */
+    BigInteger toBigInteger(long[] a) {
+        long[] plain = newZero();
+        plain[0] = 1;
+        mul(a, plain, plain);
+        return fromLimbs(plain);
+    }
+
+    /**
+     * Returns whether a value is zero.
+     */
+    boolean isZero(long[] a) {
+        long bits = 0;
+        for (long limb : a) {
+            bits |= limb;
+        }
+        return bits == 0;
+    }
+
+    /**
+     * Returns whether two values are equal.
+     */
+    boolean isEqual(long[] a, long[] b) {
+        long bits = 0;
+        for (int i = 0; i < a.length; i++) {
+            bits |= a[i] ^ b[i];
+        }
+        return bits == 0;
+    }
+
+    /**
+     * Computes out = a + b mod p.
+     */
+    void add(long[] a, long[] b, long[] out) {
+        long carry = 0;
+        for (int i = 0; i < modulus.length; i++) {
+            long x = a[i];
+            long y = b[i];
+            long sum = x + y + carry;
+            carry = ((x & y) | ((x | y) & ~sum)) >>> 63;
+            out[i] = sum;
+        }
+        reduceOnce(out, carry);
+    }
+
+    /**
+     * Computes out = a - b mod p.
+     */
+    void sub(long[] a, long[] b, long[] out) {
+        long borrow = 0;
+        for (int i = 0; i < modulus.length; i++) {
+            long x = a[i];
+            long y = b[i];
+            long difference = x - y - borrow;
+            borrow = ((~x & y) | (~(x ^ y) & difference)) >>> 63;
+            out[i] = difference;
+        }
+        if (borrow != 0) {
+            // Add p back; the carry out cancels the borrow.
+            long carry = 0;
+            for (int i = 0; i < modulus.length; i++) {
+                long x = out[i];
+                long y = modulus[i];
+                long sum = x + y + carry;
+                carry = ((x & y) | ((x | y) & ~sum)) >>> 63;
+                out[i] = sum;
+            }
+        }
+    }
+
+    /**
+     * Computes out = -a mod p.
+     */
+    void negate(long[] a, long[] out) {
+        if (isZero(a)) {
+            System.arraycopy(a, 0, out, 0, a.length);
+            return;
+        }
+        long borrow = 0;
+        for (int i = 0; i < modulus.length; i++) {
+            long x = modulus[i];
+            long y = a[i];
+            long difference = x - y - borrow;
+            borrow = ((~x & y) | (~(x ^ y) & difference)) >>> 63;
+            out[i] = difference;
+        }
+    }
+
+    /**
+     * Computes out = a * b mod p, i.e. the Montgomery product a * b * R^-1 of the representations, for any
+     * number of limbs, accumulating in the calling thread's scratch array.
+     */
+    void mul(long[] a, long[] b, long[] out) {
+        int limbs = modulus.length;
+        long[] t = accumulator.get();
+        Arrays.fill(t, 0);
+        for (int i = 0; i < limbs; i++) {
+            // t += a_i * b
+            long ai = a[i];
+            long carry = 0;
+            for (int j = 0; j < limbs; j++) {
+                long lo = ai * b[j];
+                long hi = Math.unsignedMultiplyHigh(ai, b[j]);
+                lo += carry;
+                hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+                long sum = t[j] + lo;
+                hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+                t[j] = sum;
+                carry = hi;
+            }
+            long sum = t[limbs] + carry;
+            t[limbs + 1] = Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+            t[limbs] = sum;
+
+            // t = (t + m * p) / 2^64, with m chosen so that the low limb vanishes.
+            long m = t[0] * inverse;
+            long lo = m * modulus[0];
+            long hi = Math.unsignedMultiplyHigh(m, modulus[0]);
+            sum = t[0] + lo;
+            carry = hi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+            for (int j = 1; j < limbs; j++) {
+                lo = m * modulus[j];
+                hi = Math.unsignedMultiplyHigh(m, modulus[j]);
+                lo += carry;
+                hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+                sum = t[j] + lo;
+                hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+                t[j - 1] = sum;
+                carry = hi;
+            }
+            sum = t[limbs] + carry;
+            t[limbs - 1] = sum;
+            t[limbs] = t[limbs + 1] + (Long.compareUnsigned(sum, carry) < 0 ? 1 : 0);
+        }
+        System.arraycopy(t, 0, out, 0, limbs);
+        reduceOnce(out, t[limbs]);
+    }
+
+    /**
+     * Computes out = a^2 mod p.
+     */
+    void square(long[] a, long[] out) {
+        mul(a, a, out);
+    }
+
+    /**
+     * Computes out = a^-1 mod p.
+     *
+     * @throws IllegalArgumentException if a is zero.
+     */
+    abstract void invert(long[] a, long[] out);
+
+    /**
+     * Inverts every value of an array in place with Montgomery's trick: one inversion of the product of all
+     * values, followed by 3 (k - 1) multiplications to peel off the individual inverses.
+     *
+     * @param values The non-zero values to invert. Overwritten with their inverses.
+     * @throws IllegalArgumentException if a value is zero.
+     */
+    void batchInvert(long[][] values) {
+        if (values.length == 0) {
+            return;
+        }
+        // prefix[i] = values[0] * ... * values[i]
+        long[][] prefix = new long[values.length][];
+        prefix[0] = values[0].clone();
+        for (int i = 1; i < values.length; i++) {
+            prefix[i] = newZero();
+            mul(prefix[i - 1], values[i], prefix[i]);
+        }
+
+        long[] running = newZero();
+        invert(prefix[values.length - 1], running);
+        long[] scratch = newZero();
+        for (int i = values.length - 1; i > 0; i--) {
+            // values[i]^-1 = (values[0..i])^-1 * (values[0..i-1]), then drop values[i] from the running inverse.
+            mul(running, prefix[i - 1], scratch);
+            mul(running, values[i], running);
+            System.arraycopy(scratch, 0, values[i], 0, scratch.length);
+        }
+        System.arraycopy(running, 0, values[0], 0, running.length);
+    }
+
+    /**
+     * Subtracts p once from the value high * R + out, known to be below 2p, if it is at least p.
+     */
+    final void reduceOnce(long[] out, long high) {
+        if (high == 0) {
+            for (int i = modulus.length - 1; i >= 0; i--) {
+                int comparison = Long.compareUnsigned(out[i], modulus[i]);
+                if (comparison < 0) {
+                    return;
+                }
+                if (comparison > 0) {
+                    break;
+                }
+            }
+        }
+        long borrow = 0;
+        for (int i = 0; i < modulus.length; i++) {
+            long x = out[i];
+            long y = modulus[i];
+            long difference = x - y - borrow;
+            borrow = ((~x & y) | (~(x ^ y) & difference)) >>> 63;
+            out[i] = difference;
+        }
+    }
+
+    /**
+     * Writes the limbs of a non-negative integer below p into an existing array.
+     */
+    static void fill(long[] target, BigInteger value) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = value.longValue();
+            value = value.shiftRight(64);
+        }
+    }
+
+    static long[] limbs(BigInteger value, int limbs) {
+        long[] result = new long[limbs];
+        fill(result, value);
+        return result;
+    }
+
+    static BigInteger fromLimbs(long[] limbs) {
+        byte[] bytes = new byte[8 * limbs.length];
+        for (int i = 0; i < limbs.length; i++) {
+            long limb = limbs[i];
+            for (int j = 0; j < 8; j++) {
+                bytes[bytes.length - 1 - 8 * i - j] = (byte) (limb >>> (8 * j));
+            }
+        }
+        return new BigInteger(1, bytes);
+    }
+}
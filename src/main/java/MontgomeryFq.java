@@ -0,0 +1,62 @@
+import java.math.BigInteger;
+
+/**
+ * Base-field arithmetic in F_q on eight 64-bit limbs in Montgomery form, for primes q of up to 512 bits.
+ * <p>
+ * This is the coordinate arithmetic of the Type A curve, whose q has 512 bits in a.properties, on the limb
+ * arithmetic of {@link MontgomeryArithmetic} with R = 2^512. Unlike {@link MontgomeryZr}, inversion goes
+ * through {@link BigInteger#modInverse(BigInteger)}: it is only needed when leaving projective coordinates,
+ * where many points are normalized with one batch inversion, and a 512-bit Fermat chain would cost several
+ * hundred multiplications.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+final class MontgomeryFq extends MontgomeryArithmetic {
+
+    /**
+     * Number of 64-bit limbs of a value.
+     */
+    static final int LIMBS = 8;
+
+    /**
+     * Creates the engine for the given modulus.
+     *
+     * @param q The odd prime modulus.
+     * @throws IllegalArgumentException if q is even or longer than 512 bits.
+     */
+    MontgomeryFq(BigInteger q) {
+        super(q, LIMBS);
+    }
+
+    /**
+     * Writes the integer in [0, q) represented by a value big-endian into a byte array.
+     *
+     * @param a      The value.
+     * @param target The byte array.
+     * @param offset The position of the first byte.
+     * @param length The number of bytes to write, at least the byte length of q.
+     */
+    void toBytes(long[] a, byte[] target, int offset, int length) {
+        long[] plain = newZero();
+        plain[0] = 1;
+        mul(a, plain, plain);
+        for (int k = 0; k < length; k++) {
+            int limb = k >>> 3;
+            target[offset + length - 1 - k] = limb < LIMBS ? (byte) (plain[limb] >>> (8 * (k & 7))) : 0;
+        }
+    }
+
+    /**
+     * Computes out = a^-1 mod q.
+     *
+     * @throws IllegalArgumentException if a is zero.
+     */
+    @Override
+    void invert(long[] a, long[] out) {
+        if (isZero(a)) {
+            throw new IllegalArgumentException("Zero has no inverse.");
+        }
+        long[] inverted = fromBigInteger(toBigInteger(a).modInverse(order()));
+        System.arraycopy(inverted, 0, out, 0, LIMBS);
+    }
+}
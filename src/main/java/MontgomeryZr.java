@@ -0,0 +1,247 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.math.BigInteger;
+
+/**
+ * Scalar arithmetic in Zr on fixed-width 64-bit limbs in Montgomery form.
+ * <p>
+ * The limb arithmetic is that of {@link MontgomeryArithmetic}, with as many limbs as r needs. For the
+ * Type A parameters in a.properties r has 160 bits, i.e. three limbs, and multiplication is unrolled into
+ * local variables for that case. Inversion uses Fermat's little theorem, a^-1 = a^(r-2), with a fixed 4-bit
+ * window: for a modulus this short the chain of multiplications beats a conversion to BigInteger, and it
+ * allocates only its table of 16 powers.
+ * <p>
+ * Conversions to and from JPBC elements are only meant for API boundaries. Instances are immutable and
+ * thread-safe.
+ */
+final class MontgomeryZr extends MontgomeryArithmetic {
+
+    /**
+     * Window width of the fixed-window exponentiation used for inversion.
+     */
+    private static final int INVERSION_WINDOW = 4;
+
+    /**
+     * The field Zr.
+     * The exponent r - 2 in base 2^INVERSION_WINDOW, most significant digit first.
+     */
+    private final Field<Element> zr;
+    private final int[] inversionDigits;
+
+    /**
+     * Creates the engine for the order of the given field.
+     *
+     * @param zr The field Zr. Its order must be an odd prime.
+     */
+    MontgomeryZr(Field<Element> zr) {
+        super(zr.getOrder(), (zr.getOrder().bitLength() + 63) / 64);
+        this.zr = zr;
+
+        BigInteger exponent = zr.getOrder().subtract(BigInteger.TWO);
+        int digits = (exponent.bitLength() + INVERSION_WINDOW - 1) / INVERSION_WINDOW;
+        this.inversionDigits = new int[digits];
+        for (int i = 0; i < digits; i++) {
+            int shift = (digits - 1 - i) * INVERSION_WINDOW;
+            inversionDigits[i] = exponent.shiftRight(shift).intValue() & ((1 << INVERSION_WINDOW) - 1);
+        }
+    }
+
+    /**
+     * Returns the field Zr.
+     */
+    Field<Element> field() {
+        return zr;
+    }
+
+    /**
+     * Converts a machine integer, possibly negative, into Montgomery form.
+     *
+     * @param value The integer.
+     * @return A new value.
+     */
+    long[] fromLong(long value) {
+        long[] result = newZero();
+        result[0] = Math.abs(value);
+        mul(result, rSquared, result);
+        if (value < 0) {
+            negate(result, result);
+        }
+        return result;
+    }
+
+    /**
+     * Converts a JPBC element of Zr into Montgomery form.
+     *
+     * @param element The element.
+     * @return A new value.
+     */
+    long[] fromElement(Element element) {
+        return fromBigInteger(element.toBigInteger());
+    }
+
+    /**
+     * Converts a value into a new JPBC element of Zr.
+     *
+     * @param a The value.
+     * @return A new element.
+     */
+    Element toElement(long[] a) {
+        return zr.newElement(toBigInteger(a));
+    }
+
+    /**
+     * Computes Σ a_i * b_i for JPBC elements without converting them into Montgomery form.
+     * <p>
+     * The Montgomery product of plain values is a * b * R^-1, so the k products sum to (Σ a_i b_i) * R^-1,
+     * and one final multiplication by R^2 mod r yields the plain inner product.
+     *
+     * @param a The first elements.
+     * @param b The second elements, as many as the first.
+     * @return A new element holding the inner product.
+     */
+    Element innerProduct(Element[] a, Element[] b) {
+        int limbs = modulus.length;
+        long[] sum = newZero();
+        long[] term = newZero();
+        long[] left = new long[limbs];
+        long[] right = new long[limbs];
+        for (int i = 0; i < a.length; i++) {
+            fill(left, a[i].toBigInteger());
+            fill(right, b[i].toBigInteger());
+            mul(left, right, term);
+            add(sum, term, sum);
+        }
+        mul(sum, rSquared, sum);
+        return zr.newElement(fromLimbs(sum));
+    }
+
+    /**
+     * Computes out = a * b mod r, unrolled for three limbs.
+     */
+    @Override
+    void mul(long[] a, long[] b, long[] out) {
+        if (modulus.length == 3) {
+            mul3(a, b, out);
+        } else {
+            super.mul(a, b, out);
+        }
+    }
+
+    /**
+     * Computes out = a^-1 mod r as a^(r-2).
+     *
+     * @throws IllegalArgumentException if a is zero.
+     */
+    @Override
+    void invert(long[] a, long[] out) {
+        if (isZero(a)) {
+            throw new IllegalArgumentException("Zero has no inverse.");
+        }
+        long[][] table = new long[1 << INVERSION_WINDOW][];
+        table[0] = newOne();
+        table[1] = a.clone();
+        for (int i = 2; i < table.length; i++) {
+            table[i] = newZero();
+            mul(table[i - 1], table[1], table[i]);
+        }
+
+        long[] result = newOne();
+        for (int digit : inversionDigits) {
+            for (int i = 0; i < INVERSION_WINDOW; i++) {
+                square(result, result);
+            }
+            if (digit != 0) {
+                mul(result, table[digit], result);
+            }
+        }
+        System.arraycopy(result, 0, out, 0, result.length);
+    }
+
+    /**
+     * CIOS Montgomery multiplication for three limbs, with the accumulator held in local variables.
+     */
+    private void mul3(long[] a, long[] b, long[] out) {
+        long b0 = b[0];
+        long b1 = b[1];
+        long b2 = b[2];
+        long m0 = modulus[0];
+        long m1 = modulus[1];
+        long m2 = modulus[2];
+        long t0 = 0;
+        long t1 = 0;
+        long t2 = 0;
+        long t3 = 0;
+        long t4;
+        for (int i = 0; i < 3; i++) {
+            // a may alias out, which is only written after the loop.
+            long ai = a[i];
+            long lo;
+            long hi;
+            long sum;
+
+            // t += a_i * b
+            lo = ai * b0;
+            hi = Math.unsignedMultiplyHigh(ai, b0);
+            sum = t0 + lo;
+            hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+            t0 = sum;
+            long carry = hi;
+
+            lo = ai * b1;
+            hi = Math.unsignedMultiplyHigh(ai, b1);
+            lo += carry;
+            hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+            sum = t1 + lo;
+            hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+            t1 = sum;
+            carry = hi;
+
+            lo = ai * b2;
+            hi = Math.unsignedMultiplyHigh(ai, b2);
+            lo += carry;
+            hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+            sum = t2 + lo;
+            hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+            t2 = sum;
+            carry = hi;
+
+            sum = t3 + carry;
+            t4 = Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+            t3 = sum;
+
+            // t = (t + m * r) / 2^64, with m chosen so that the low limb vanishes.
+            long m = t0 * inverse;
+            lo = m * m0;
+            hi = Math.unsignedMultiplyHigh(m, m0);
+            sum = t0 + lo;
+            carry = hi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+
+            lo = m * m1;
+            hi = Math.unsignedMultiplyHigh(m, m1);
+            lo += carry;
+            hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+            sum = t1 + lo;
+            hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+            t0 = sum;
+            carry = hi;
+
+            lo = m * m2;
+            hi = Math.unsignedMultiplyHigh(m, m2);
+            lo += carry;
+            hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+            sum = t2 + lo;
+            hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+            t1 = sum;
+            carry = hi;
+
+            sum = t3 + carry;
+            t2 = sum;
+            t3 = t4 + (Long.compareUnsigned(sum, carry) < 0 ? 1 : 0);
+        }
+        out[0] = t0;
+        out[1] = t1;
+        out[2] = t2;
+        reduceOnce(out, t3);
+    }
+}
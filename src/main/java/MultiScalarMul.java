@@ -0,0 +1,194 @@
+import it.unisa.dia.gas.jpbc.Element;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-scalar multiplication (multi-exponentiation) engine computing Π B_i^(e_i) as one operation.
+ * <p>
+ * Small inputs use Straus' interleaved method, which shares one squaring chain between all bases, with each
+ * exponent recoded in width-w NAF ({@link WindowedNaf}) and w picked per base from its bit length.
+ * Larger inputs use Pippenger's bucket method, which replaces most per-base work by bucket accumulation.
+ * <p>
+ * Group operations are written multiplicatively and run on the {@link GroupArithmetic} of the bases' group,
+ * i.e. on Jacobian points for the Type A G1 and on JPBC elements otherwise, so the engine works unchanged
+ * for G1 and GT elements.
+ * <p>
+ * Reference:
+ * Pippenger, Nicholas. "On the evaluation of powers and related problems."
+ * 17th Annual Symposium on Foundations of Computer Science. IEEE, 1976.
+ */
+final class MultiScalarMul {
+
+    /**
+     * Below this number of bases Straus' method is used, at or above it Pippenger's.
+     */
+    private static final int PIPPENGER_THRESHOLD = 32;
+
+    private MultiScalarMul() {
+    }
+
+    /**
+     * Computes Π bases[i]^(exponents[i]).
+     *
+     * @param bases     The group elements. Must be non-empty.
+     * @param exponents The non-negative exponents, one per base.
+     * @return A new element holding the product.
+     * @throws IllegalArgumentException if the arrays differ in length or are empty.
+     */
+    static Element multiExp(Element[] bases, BigInteger[] exponents) {
+        if (bases.length != exponents.length || bases.length == 0) {
+            throw new IllegalArgumentException("Bases and exponents must be non-empty and of equal length.");
+        }
+        return multiExp(GroupArithmetic.of(bases[0].getField()), bases, exponents);
+    }
+
+    /**
+     * Computes Π bases[i]^(exponents[i]) on the given arithmetic, so that callers holding the arithmetic of the
+     * bases' group, e.g. of a {@link FixedBaseComb}, do not set it up again on every call.
+     *
+     * @param group     The arithmetic of the group of the bases.
+     * @param bases     The group elements. Must be non-empty.
+     * @param exponents The non-negative exponents, one per base.
+     * @return A new element holding the product.
+     * @throws IllegalArgumentException if the arrays differ in length or are empty.
+     */
+    static <P> Element multiExp(GroupArithmetic<P> group, Element[] bases, BigInteger[] exponents) {
+        if (bases.length != exponents.length || bases.length == 0) {
+            throw new IllegalArgumentException("Bases and exponents must be non-empty and of equal length.");
+        }
+        int bits = 0;
+        for (BigInteger exponent : exponents) {
+            bits = Math.max(bits, exponent.bitLength());
+        }
+        return multiExp(group, bases, exponents, bits);
+    }
+
+    /**
+     * Converts the bases into the group's internal representation and dispatches on their number.
+     */
+    private static <P> Element multiExp(GroupArithmetic<P> group, Element[] elements, BigInteger[] exponents,
+                                        int bits) {
+        List<P> bases = new ArrayList<>(elements.length);
+        for (Element element : elements) {
+            bases.add(group.fromElement(element));
+        }
+        P result = bases.size() < PIPPENGER_THRESHOLD
+                ? straus(group, bases, exponents, bits)
+                : pippenger(group, bases, exponents, bits);
+        return group.toElement(result);
+    }
+
+    /**
+     * Straus' interleaved method over wNAF digits.
+     */
+    private static <P> P straus(GroupArithmetic<P> group, List<P> bases, BigInteger[] exponents, int bits) {
+        // Recode every exponent and precompute the odd powers of its base and their inverses.
+        int[][] digits = new int[bases.size()][];
+        List<List<P>> powers = new ArrayList<>(bases.size());
+        List<List<P>> inverses = new ArrayList<>(bases.size());
+        List<P> table = new ArrayList<>();
+        for (int i = 0; i < bases.size(); i++) {
+            int width = WindowedNaf.width(exponents[i].bitLength());
+            digits[i] = WindowedNaf.digits(exponents[i], width);
+            powers.add(WindowedNaf.oddPowers(group, bases.get(i), width));
+            inverses.add(WindowedNaf.inverses(group, powers.get(i)));
+            table.addAll(powers.get(i));
+            table.addAll(inverses.get(i));
+        }
+        group.normalize(table);
+
+        P result = group.identity();
+        for (int position = bits; position >= 0; position--) {
+            group.square(result);
+            for (int i = 0; i < bases.size(); i++) {
+                int digit = position < digits[i].length ? digits[i][position] : 0;
+                if (digit > 0) {
+                    group.mul(result, powers.get(i).get(digit >> 1));
+                } else if (digit < 0) {
+                    group.mul(result, inverses.get(i).get(-digit >> 1));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pippenger's bucket method.
+     */
+    private static <P> P pippenger(GroupArithmetic<P> group, List<P> bases, BigInteger[] exponents, int bits) {
+        int c = pippengerWindow(bases.size());
+        int windows = (bits + c - 1) / c;
+        List<P> buckets = new ArrayList<>(Collections.nCopies((1 << c) - 1, null));
+
+        P result = group.identity();
+        for (int w = windows - 1; w >= 0; w--) {
+            for (int s = 0; s < c; s++) {
+                group.square(result);
+            }
+
+            // Drop every base into the bucket of its current digit.
+            Collections.fill(buckets, null);
+            for (int i = 0; i < bases.size(); i++) {
+                int digit = digit(exponents[i], w * c, c);
+                if (digit != 0) {
+                    P bucket = buckets.get(digit - 1);
+                    if (bucket == null) {
+                        buckets.set(digit - 1, group.copy(bases.get(i)));
+                    } else {
+                        group.mul(bucket, bases.get(i));
+                    }
+                }
+            }
+
+            // Σ j * bucket_j via running suffix products.
+            P running = null;
+            P windowSum = null;
+            for (int j = buckets.size() - 1; j >= 0; j--) {
+                P bucket = buckets.get(j);
+                if (bucket != null) {
+                    if (running == null) {
+                        running = bucket;
+                    } else {
+                        group.mul(running, bucket);
+                    }
+                }
+                if (running != null) {
+                    if (windowSum == null) {
+                        windowSum = group.copy(running);
+                    } else {
+                        group.mul(windowSum, running);
+                    }
+                }
+            }
+            if (windowSum != null) {
+                group.mul(result, windowSum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bucket window width for the given number of bases, roughly log2(n) - 1.
+     */
+    private static int pippengerWindow(int n) {
+        int log = 31 - Integer.numberOfLeadingZeros(n);
+        return Math.max(2, Math.min(16, log - 1));
+    }
+
+    /**
+     * Extracts bits [offset, offset + width) of the exponent.
+     */
+    private static int digit(BigInteger exponent, int offset, int width) {
+        int digit = 0;
+        for (int b = width - 1; b >= 0; b--) {
+            digit <<= 1;
+            if (exponent.testBit(offset + b)) {
+                digit |= 1;
+            }
+        }
+        return digit;
+    }
+}
@@ -4,9 +4,17 @@ import it.unisa.dia.gas.jpbc.Pairing;
 import it.unisa.dia.gas.jpbc.PairingParameters;
 import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Pedersen Verifiable Secret Sharing (VSS) scheme.
@@ -26,10 +34,130 @@ public class PedersenVSS {
      * The pairing structure.
      * Public generator g.
      * Public generator h, derived independently of g.
+     * Precomputed comb tables for g and h, shared by every g^a * h^b computation. Its group arithmetic, on
+     * Jacobian points for Type A pairings, is also used for commitment evaluation.
      */
     private final Pairing pairing;
     private final Element g;
     private final Element h;
+    private final FixedBaseComb<?> generators;
+
+    /**
+     * Roots-of-unity evaluation domain, or null if participant i is assigned the integer point i.
+     */
+    private final RootsOfUnityDomain domain;
+
+    /**
+     * Polynomial arithmetic over Zr, used for multipoint evaluation.
+     */
+    private final ZrPolynomials polynomials;
+
+    /**
+     * Limb-based Montgomery arithmetic in Zr, used for polynomial evaluation and Lagrange interpolation.
+     */
+    private final MontgomeryZr scalars;
+
+    /**
+     * SIMD kernel evaluating f and g at several points per pass, or null if the Vector API is unavailable.
+     */
+    private final PolynomialKernel kernel;
+
+    /**
+     * Horner dealings with at least this many coefficient-point products use the SIMD kernel, which only
+     * pays off once its vector code is compiled.
+     */
+    private static final int VECTOR_KERNEL_MIN_PRODUCTS = 1 << 14;
+
+    /**
+     * Largest committee size n for which reconstruction precomputes inverse and weight tables for 1..n.
+     * Quorums use the tables only if n is at most this many times their size k, so that O(n) tables are not
+     * built for a handful of shares.
+     * Number of committees whose tables are kept.
+     * Reconstruction engines of the most recently used committees 1..n, keyed by n in access order.
+     */
+    private static final int COMMITTEE_TABLE_LIMIT = 1 << 16;
+    private static final int COMMITTEE_TABLE_FACTOR = 4;
+    private static final int COMMITTEE_CACHE_CAPACITY = 4;
+    private final Map<Integer, CommitteeReconstructor> committees = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CommitteeReconstructor> eldest) {
+            return size() > COMMITTEE_CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Number of quorums whose Lagrange coefficient vectors are cached.
+     * Cache of Lagrange coefficient vectors, keyed by the sorted index set of the quorum.
+     */
+    private static final int LAGRANGE_CACHE_CAPACITY = 1024;
+    private final LagrangeCache lagrangeCache = new LagrangeCache(LAGRANGE_CACHE_CAPACITY);
+
+    /**
+     * Batched reconstructions of at least this many secrets split the dot products across threads.
+     */
+    private static final int PARALLEL_RECONSTRUCTION_THRESHOLD = 256;
+
+    /**
+     * Largest participant index bit length for which shares are verified with short exponentiations
+     * (Horner in the exponent) rather than one full-width multi-exponentiation.
+     */
+    private static final int SHORT_INDEX_BITS = 24;
+
+    /**
+     * Bit length of the random weights used to combine share equations in batch verification.
+     */
+    private static final int BATCH_WEIGHT_BITS = 64;
+
+    /**
+     * Source of the random weights.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Number of dealings whose commitments are remembered to lie in the subgroup of prime order r.
+     * Commitment lists that passed the subgroup check, in access order, so that each is checked only once.
+     */
+    private static final int SUBGROUP_CACHE_CAPACITY = 4096;
+    private final Map<CommitmentList, Boolean> subgroupMembers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CommitmentList, Boolean> eldest) {
+            return size() > SUBGROUP_CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Dealings with n at least this many times t evaluate f and g by forward differences.
+     * The same factor for dealings large enough for the SIMD kernel, which beats the scalar O(t^2) setup of
+     * forward differences until n reaches about 8t.
+     */
+    private static final int FORWARD_DIFFERENCE_FACTOR = 2;
+    private static final int KERNEL_FORWARD_DIFFERENCE_FACTOR = 8;
+
+    /**
+     * Audits tabulate the commitment evaluations E_1, ..., E_m only if m is at most this many times the
+     * number of shares, so that most table entries are used.
+     * Largest table of commitment evaluations an audit builds, bounding its memory regardless of the indices.
+     */
+    private static final int AUDIT_TABLE_FACTOR = 4;
+    private static final int AUDIT_TABLE_LIMIT = 1 << 16;
+
+    /**
+     * Dealings to arbitrary index sets with at least this threshold use subproduct-tree multipoint evaluation,
+     * which runs on JPBC elements and only overtakes Horner's method on Montgomery limbs from t = 2^14.
+     * The same threshold when the SIMD kernel is available, which Horner dealings use instead.
+     */
+    private static final int MULTIPOINT_MIN_THRESHOLD = 1 << 14;
+    private static final int MULTIPOINT_MIN_THRESHOLD_WITH_KERNEL = 1 << 16;
+
+    /**
+     * Strategies for evaluating f and g at the participants' points.
+     */
+    private enum EvaluationStrategy {
+        HORNER,
+        FORWARD_DIFFERENCE,
+        NUMBER_THEORETIC_TRANSFORM,
+        MULTIPOINT
+    }
 
     /**
      * Constructs a PedersenVSS instance with the provided parameters.
@@ -40,12 +168,41 @@ public class PedersenVSS {
      * @throws IllegalArgumentException if g and h are equal.
      */
     public PedersenVSS(Pairing pairing, Element g, Element h) {
+        this(pairing, g, h, null);
+    }
+
+    /**
+     * Constructs a PedersenVSS instance whose participants are assigned roots of unity instead of integers.
+     * <p>
+     * Participant i is assigned the point ω^(i-1), where ω generates the subgroup of order domainSize in Zr^*.
+     * Dealing then evaluates f and g at all points with one number-theoretic transform, and reconstruction
+     * from a full or near-full set of shares uses the structure of the domain.
+     *
+     * @param pairing    The pairing structure used.
+     * @param g          The public generator g.
+     * @param h          The public generator h.
+     * @param domainSize The size of the evaluation domain, a power of two and the maximum number of participants.
+     * @throws IllegalArgumentException if g and h are equal, or Zr has no root of unity of order domainSize.
+     */
+    @SuppressWarnings("unchecked")
+    public PedersenVSS(Pairing pairing, Element g, Element h, int domainSize) {
+        this(pairing, g, h, new RootsOfUnityDomain(pairing.getZr(), domainSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PedersenVSS(Pairing pairing, Element g, Element h, RootsOfUnityDomain domain) {
         if (g.isEqual(h)) {
             throw new IllegalArgumentException("Generators g and h must be different.");
         }
         this.pairing = pairing;
         this.g = g;
         this.h = h;
+        this.generators = new FixedBaseComb<>(GroupArithmetic.of(pairing.getG1()), g, h,
+                pairing.getZr().getOrder().bitLength());
+        this.domain = domain;
+        this.polynomials = new ZrPolynomials(pairing.getZr());
+        this.scalars = new MontgomeryZr(pairing.getZr());
+        this.kernel = PolynomialKernel.vectorized(pairing.getZr());
     }
 
     /**
@@ -59,6 +216,13 @@ public class PedersenVSS {
     public record Share(int index, Element value1, Element value2, List<Element> commitment) {
     }
 
+    /**
+     * Result of an error-correcting reconstruction: the secret, and the indices of the shares whose
+     * values were found to be wrong, in the order of the shares.
+     */
+    public record Decoding(Element secret, List<Integer> wrongIndices) {
+    }
+
     /**
      * Distributes the secret and generates commitments for verifiable secret sharing.
      *
@@ -66,12 +230,59 @@ public class PedersenVSS {
      * @param t      The threshold t, representing the minimum number of shares required to reconstruct the secret.
      * @param n      The total number of participants.
      * @return A list of shares, each containing the full list of public commitments.
-     * @throws IllegalArgumentException if t > n or secret is zero.
+     * @throws IllegalArgumentException if t > n, n exceeds the evaluation domain, or secret is zero.
      */
     public List<Share> shareSecret(Element secret, int t, int n) {
         if (t > n) {
             throw new IllegalArgumentException("Threshold t cannot be greater than the total number of participants n.");
         }
+        if (domain != null && n > domain.size()) {
+            throw new IllegalArgumentException("The number of participants n cannot exceed the evaluation domain size.");
+        }
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i + 1;
+        }
+        return deal(secret, t, indices, true);
+    }
+
+    /**
+     * Distributes the secret to participants with arbitrary indices, e.g. sparse long-lived participant IDs.
+     *
+     * @param secret  The secret to be shared. It must be a non-zero element.
+     * @param t       The threshold t, representing the minimum number of shares required to reconstruct the secret.
+     * @param indices The distinct positive participant indices, one share is generated for each.
+     * @return A list of shares in the order of the indices, each containing the full list of public commitments.
+     * @throws IllegalArgumentException if t exceeds the number of indices, an index is not positive, repeated
+     *                                  or outside the evaluation domain, or secret is zero.
+     */
+    public List<Share> shareSecret(Element secret, int t, int[] indices) {
+        if (t > indices.length) {
+            throw new IllegalArgumentException("Threshold t cannot be greater than the total number of participants n.");
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (int index : indices) {
+            if (index <= 0 || !seen.add(index)) {
+                throw new IllegalArgumentException("Participant indices must be positive and distinct.");
+            }
+            if (domain != null && index > domain.size()) {
+                throw new IllegalArgumentException("Participant index " + index + " lies outside the evaluation domain.");
+            }
+        }
+        return deal(secret, t, indices.clone(), false);
+    }
+
+    /**
+     * Generates the polynomials and commitments of a dealing and evaluates them at the participants' points.
+     *
+     * @param secret      The secret to be shared. It must be a non-zero element.
+     * @param t           The threshold t.
+     * @param indices     The validated participant indices.
+     * @param consecutive Whether the indices are exactly 1..n.
+     * @return A list of shares in the order of the indices.
+     * @throws IllegalArgumentException if secret is zero.
+     */
+    private List<Share> deal(Element secret, int t, int[] indices, boolean consecutive) {
         if (secret.isZero()) {
             throw new IllegalArgumentException("Secret must be a non-zero element.");
         }
@@ -94,24 +305,39 @@ public class PedersenVSS {
             gCoefficients.add(Zr.newRandomElement());
         }
 
-        // Generate commitments C_i = g^f_i * h^g_i for each coefficient.
-        List<Element> commitments = new ArrayList<>();
-        for (int i = 0; i < t; i++) {
-            Element commitment = g.duplicate().powZn(fCoefficients.get(i))
-                    .add(h.duplicate().powZn(gCoefficients.get(i)));
-            commitments.add(commitment);
+        // Generate commitments C_i = g^f_i * h^g_i for each coefficient, converted to affine points together.
+        List<Element> commitments = generators.powAll(fCoefficients, gCoefficients);
+
+        // Evaluate f(x) and g(x) at every participant's point.
+        int n = indices.length;
+        Element[] fValues = new Element[n];
+        Element[] gValues = new Element[n];
+        switch (selectEvaluationStrategy(t, n, consecutive)) {
+            case NUMBER_THEORETIC_TRANSFORM -> {
+                Element[] fDomainValues = domain.evaluate(fCoefficients);
+                Element[] gDomainValues = domain.evaluate(gCoefficients);
+                for (int i = 0; i < n; i++) {
+                    fValues[i] = fDomainValues[indices[i] - 1];
+                    gValues[i] = gDomainValues[indices[i] - 1];
+                }
+            }
+            case FORWARD_DIFFERENCE -> evaluateByForwardDifferences(fCoefficients, gCoefficients, fValues, gValues);
+            case MULTIPOINT -> {
+                BigInteger[] points = new BigInteger[n];
+                for (int i = 0; i < n; i++) {
+                    points[i] = point(indices[i]);
+                }
+                ZrPolynomials.SubproductTree tree = polynomials.new SubproductTree(points);
+                System.arraycopy(tree.evaluate(fCoefficients.toArray(new Element[0])), 0, fValues, 0, n);
+                System.arraycopy(tree.evaluate(gCoefficients.toArray(new Element[0])), 0, gValues, 0, n);
+            }
+            default -> evaluateByHorner(fCoefficients, gCoefficients, indices, fValues, gValues);
         }
 
         // Generate shares for each participant.
         List<Share> shares = new ArrayList<>();
-        for (int i = 1; i <= n; i++) {
-            BigInteger x = BigInteger.valueOf(i);
-
-            // Calculate f(x) and g(x).
-            Element f_x = evaluatePolynomial(fCoefficients, x);
-            Element g_x = evaluatePolynomial(gCoefficients, x);
-
-            shares.add(new Share(i, f_x, g_x, commitments));
+        for (int i = 0; i < n; i++) {
+            shares.add(new Share(indices[i], fValues[i], gValues[i], commitments));
         }
 
         return shares;
@@ -127,6 +353,12 @@ public class PedersenVSS {
      * where λ_i is the Lagrange basis polynomial for the i-th share:
      * <p>
      * λ_i = Π (x_j / (x_j - x_i)) for all j ≠ i
+     * <p>
+     * The coefficients λ_i of recently used quorums are cached, so repeated quorums cost only the sum above.
+     * When all indices lie in 1..n and the quorum holds at least a quarter of the committee, the coefficients
+     * come from the committee's precomputed inverse and barycentric weight tables without any inversion.
+     * Otherwise numerators and denominators are accumulated per share and all denominators are inverted
+     * together, so the reconstruction costs a single inversion.
      *
      * @param shares The list of shares used to reconstruct the secret. This list must contain at least
      *               t valid shares, where t is the threshold defined in the secret sharing scheme.
@@ -135,7 +367,8 @@ public class PedersenVSS {
      * @param n      The total number of participants.
      * @return The reconstructed secret as an Element, which is f(0), the value of the polynomial
      * evaluated at x = 0 (the original secret).
-     * @throws IllegalArgumentException if the number of shares provided is less than the threshold t.
+     * @throws IllegalArgumentException if the number of shares provided is less than the threshold t,
+     *                                  or two shares have the same index.
      */
     public Element reconstruct(List<Share> shares, int t, int n) {
         // Check that the number of shares is at least t, as required for reconstruction
@@ -144,83 +377,1011 @@ public class PedersenVSS {
                     "At least " + t + " shares are required.");
         }
 
-        // Initialize the result (the reconstructed secret) to zero in the field Zr
-        Element secret = pairing.getZr().newZeroElement();
+        // Over a roots-of-unity domain, near-full share sets are interpolated through the domain structure
+        if (domain != null && domain.interpolationCost(shares.size()) < (long) shares.size() * shares.size()) {
+            int[] indices = new int[shares.size()];
+            Element[] values = new Element[shares.size()];
+            for (int i = 0; i < shares.size(); i++) {
+                indices[i] = shares.get(i).index();
+                values[i] = shares.get(i).value1();
+            }
+            return domain.interpolateAtZero(indices, values);
+        }
+
+        // Lagrange coefficients λ_i at zero
+        Element[] lambdas = lagrangeAtZero(shares, n);
+
+        // Return the reconstructed secret f(0)
+        return interpolateAtZero(lambdas, shares);
+    }
+
+    /**
+     * Reconstructs many secrets whose shares come from the same participants.
+     * <p>
+     * The Lagrange coefficients λ_i of the quorum are computed once, after which every secret costs one
+     * k-term dot product Σ f(x_i) * λ_i. Batches of at least 256 secrets are split across the common
+     * fork-join pool.
+     *
+     * @param shareSets The shares of each secret. Every list must hold shares of the same participants,
+     *                  in the same order, and at least t of them.
+     * @param t         The threshold value representing the minimum number of shares required to reconstruct a secret.
+     * @param n         The total number of participants.
+     * @return The reconstructed secrets, in the order of the share sets.
+     * @throws IllegalArgumentException if a share set has fewer than t shares, two shares have the same
+     *                                  index, or the share sets do not come from the same participants.
+     */
+    public List<Element> reconstructAll(List<List<Share>> shareSets, int t, int n) {
+        if (shareSets.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Share> quorum = shareSets.get(0);
+        if (quorum.size() < t) {
+            throw new IllegalArgumentException("Not enough shares to reconstruct the secret. " +
+                    "At least " + t + " shares are required.");
+        }
+        for (List<Share> shares : shareSets) {
+            boolean sameQuorum = shares.size() == quorum.size();
+            for (int i = 0; sameQuorum && i < shares.size(); i++) {
+                sameQuorum = shares.get(i).index() == quorum.get(i).index();
+            }
+            if (!sameQuorum) {
+                throw new IllegalArgumentException("All share sets must come from the same participants, in the same order.");
+            }
+        }
+
+        // Lagrange coefficients λ_i at zero, shared by every secret
+        Element[] lambdas = lagrangeAtZero(quorum, n);
+
+        Element[] secrets = new Element[shareSets.size()];
+        IntStream batch = IntStream.range(0, secrets.length);
+        if (secrets.length >= PARALLEL_RECONSTRUCTION_THRESHOLD) {
+            batch = batch.parallel();
+        }
+        batch.forEach(s -> secrets[s] = interpolateAtZero(lambdas, shareSets.get(s)));
+        return new ArrayList<>(Arrays.asList(secrets));
+    }
+
+    /**
+     * Reconstructs the secret optimistically, checking the result against the commitment C_0 only.
+     * <p>
+     * f(0) and g(0) are interpolated in one pass with the same Lagrange coefficients, and accepted if
+     * <p>
+     * g^f(0) * h^g(0) = C_0
+     * <p>
+     * which costs one fixed-base double exponentiation. Since C_0 is binding unless log_g(h) is known, a passing
+     * check only guarantees that the returned secret is the one committed to in C_0. It does not validate the
+     * shares: errors in several shares can cancel in the interpolation and pass unnoticed, so callers that need
+     * to know which shares are valid must use {@link #verifyShares(List)}. If the check fails, the shares are
+     * verified with {@link #verifyShares(List)} and the secret is reconstructed from the valid ones.
+     *
+     * @param shares The shares of one dealing, at least t of them.
+     * @param t      The threshold value representing the minimum number of shares required to reconstruct the secret.
+     * @param n      The total number of participants.
+     * @return The reconstructed secret f(0), consistent with the commitments.
+     * @throws IllegalArgumentException if the shares do not belong to the same dealing, two shares have the same
+     *                                  index, or fewer than t of them are valid.
+     */
+    public Element reconstructOptimistic(List<Share> shares, int t, int n) {
+        if (shares.isEmpty() || shares.size() < t) {
+            throw new IllegalArgumentException("Not enough shares to reconstruct the secret. " +
+                    "At least " + t + " shares are required.");
+        }
+        List<Element> commitments = shares.get(0).commitment();
+        for (Share share : shares) {
+            if (!sameCommitments(commitments, share.commitment())) {
+                throw new IllegalArgumentException("All shares must belong to the same dealing.");
+            }
+        }
+        // A polynomial of degree t' - 1 needs t' points, whatever threshold the caller assumes.
+        int required = Math.max(t, commitments.size());
+
+        if (shares.size() >= required) {
+            Element[] lambdas = lagrangeAtZero(shares, n);
+            Element secret = interpolateAtZero(lambdas, shares);
+            Element[] values2 = new Element[shares.size()];
+            for (int i = 0; i < shares.size(); i++) {
+                values2[i] = shares.get(i).value2();
+            }
+            Element blinding = scalars.innerProduct(lambdas, values2);
+            if (generators.pow(secret, blinding).isEqual(commitments.get(0))) {
+                return secret;
+            }
+        }
 
-        // Lagrange interpolation to calculate f(0)
+        // Fall back to locating the invalid shares and interpolating over the valid ones.
+        boolean[] valid = verifyShares(shares);
+        List<Share> validShares = new ArrayList<>();
         for (int i = 0; i < shares.size(); i++) {
-            // Initialize the Lagrange basis polynomial λ_i to one
-            Element lambda_i = pairing.getZr().newOneElement();
-            BigInteger xi = BigInteger.valueOf(shares.get(i).index());
+            if (valid[i]) {
+                validShares.add(shares.get(i));
+            }
+        }
+        if (validShares.size() < required) {
+            throw new IllegalArgumentException("Not enough valid shares to reconstruct the secret. " +
+                    "At least " + required + " are required, but only " + validShares.size() + " are valid.");
+        }
+        return interpolateAtZero(lagrangeAtZero(validShares, n), validShares);
+    }
 
-            // Compute the Lagrange basis polynomial λ_i for the i-th share
-            for (int j = 0; j < shares.size(); j++) {
-                if (i != j) {
-                    BigInteger xj = BigInteger.valueOf(shares.get(j).index());
+    /**
+     * Reconstructs the secret from exactly t shares, after checking that the surplus shares are consistent.
+     * <p>
+     * The secret is interpolated from the first t shares only. When more shares are supplied, their values
+     * must lie on one polynomial of degree at most t - 1, which is checked with field operations only by
+     * {@link #sharesConsistent(List, int)}.
+     *
+     * @param shares The shares, at least t of them.
+     * @param t      The threshold value representing the minimum number of shares required to reconstruct the secret.
+     * @param n      The total number of participants.
+     * @return The reconstructed secret f(0).
+     * @throws IllegalArgumentException if fewer than t shares are supplied, two shares have the same index,
+     *                                  or the shares are inconsistent.
+     */
+    public Element reconstructChecked(List<Share> shares, int t, int n) {
+        if (shares.size() < t) {
+            throw new IllegalArgumentException("Not enough shares to reconstruct the secret. " +
+                    "At least " + t + " shares are required.");
+        }
+        if (!sharesConsistent(shares, t)) {
+            throw new IllegalArgumentException("Shares are inconsistent: they do not lie on a polynomial of degree " +
+                    (t - 1) + ".");
+        }
+        return reconstruct(shares.subList(0, t), t, n);
+    }
 
-                    // λ_i *= (0 - x_j) / (x_i - x_j)
+    /**
+     * Checks whether the shares' values lie on polynomials f and g of degree at most t - 1.
+     * <p>
+     * The values at k points lie on such a polynomial exactly when they are a codeword of the Reed-Solomon
+     * code of dimension t at these points, i.e. when every syndrome of the dual code vanishes:
+     * <p>
+     * S_j = Σ_i v_i x_i^j y_i = 0, for j = 0, ..., k - t - 1
+     * <p>
+     * where v_i = 1 / Π_{l ≠ i} (x_i - x_l) are the barycentric weights. This costs O(k^2) field
+     * multiplications and one inversion, without any group exponentiation, and needs no commitments.
+     * It cannot tell which shares are wrong, nor detect k - t or more of them crafted to agree on another
+     * polynomial; shares that pass are still checked against the commitments by {@link #verifyShares(List)}.
+     *
+     * @param shares The shares to check. With t or fewer shares, any values are consistent.
+     * @param t      The threshold value.
+     * @return true if all syndromes vanish, for both f and g.
+     * @throws IllegalArgumentException if two shares have the same index.
+     */
+    public boolean sharesConsistent(List<Share> shares, int t) {
+        int k = shares.size();
+        if (k <= t) {
+            return true;
+        }
+        BigInteger[] points = new BigInteger[k];
+        long[][] x = new long[k][];
+        long[][] values1 = new long[k][];
+        long[][] values2 = new long[k][];
+        for (int i = 0; i < k; i++) {
+            points[i] = point(shares.get(i).index());
+            x[i] = scalars.fromBigInteger(points[i]);
+            values1[i] = scalars.fromElement(shares.get(i).value1());
+            values2[i] = scalars.fromElement(shares.get(i).value2());
+        }
 
-                    // 0 - x_j
-                    Element numerator = pairing.getZr().newElement(xj.negate());
-                    // (x_i - x_j)^(-1)
-                    Element denominator = pairing.getZr().newElement(xi.subtract(xj)).invert();
-                    // λ_i *= (numerator / denominator)
-                    lambda_i = lambda_i.mul(numerator.mul(denominator));
-                }
+        // columns[i] = v_i * x_i^j, advanced by x_i for each syndrome j.
+        long[][] columns = LagrangeCoefficients.weights(scalars, points);
+        long[] syndrome1 = scalars.newZero();
+        long[] syndrome2 = scalars.newZero();
+        long[] term = scalars.newZero();
+        for (int j = 0; j < k - t; j++) {
+            Arrays.fill(syndrome1, 0);
+            Arrays.fill(syndrome2, 0);
+            for (int i = 0; i < k; i++) {
+                scalars.mul(columns[i], values1[i], term);
+                scalars.add(syndrome1, term, syndrome1);
+                scalars.mul(columns[i], values2[i], term);
+                scalars.add(syndrome2, term, syndrome2);
+                scalars.mul(columns[i], x[i], columns[i]);
+            }
+            if (!scalars.isZero(syndrome1) || !scalars.isZero(syndrome2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reconstructs the secret while correcting wrong share values, by decoding the Reed-Solomon codewords
+     * formed by the shares.
+     * <p>
+     * The values f(x_i) and g(x_i) of k shares are codewords of the Reed-Solomon code of dimension t at the
+     * shares' points, so up to ⌊(k - t) / 2⌋ wrong values1 and ⌊(k - t) / 2⌋ wrong values2 are corrected with
+     * Gao's decoding algorithm in O(k^2) field operations, without any group exponentiation. A share is
+     * reported as wrong if either of its values disagrees with the decoded polynomials. Like
+     * {@link #sharesConsistent(List, int)}, decoding does not consult the commitments.
+     *
+     * @param shares The shares, at least t of them.
+     * @param t      The threshold value representing the minimum number of shares required to reconstruct the secret.
+     * @return The secret f(0) and the indices of the wrong shares.
+     * @throws IllegalArgumentException if fewer than t shares are supplied, two shares have the same index,
+     *                                  or too many values are wrong to be corrected.
+     */
+    public Decoding reconstructCorrecting(List<Share> shares, int t) {
+        int k = shares.size();
+        if (k < t) {
+            throw new IllegalArgumentException("Not enough shares to reconstruct the secret. " +
+                    "At least " + t + " shares are required.");
+        }
+        BigInteger[] points = new BigInteger[k];
+        Element[] values1 = new Element[k];
+        Element[] values2 = new Element[k];
+        for (int i = 0; i < k; i++) {
+            points[i] = point(shares.get(i).index());
+            values1[i] = shares.get(i).value1();
+            values2[i] = shares.get(i).value2();
+        }
+
+        ReedSolomonDecoder decoder = new ReedSolomonDecoder(scalars, polynomials, points);
+        Element[] f = decoder.decode(values1, t);
+        Element[] g = decoder.decode(values2, t);
+        if (f == null || g == null) {
+            throw new IllegalArgumentException("Too many wrong shares to decode. At most " + (k - t) / 2 +
+                    " wrong values can be corrected with " + k + " shares.");
+        }
+
+        // A share is wrong if either of its values is off the decoded polynomials.
+        Element[] expected1 = decoder.evaluate(f);
+        Element[] expected2 = decoder.evaluate(g);
+        List<Integer> wrongIndices = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            if (!expected1[i].isEqual(values1[i]) || !expected2[i].isEqual(values2[i])) {
+                wrongIndices.add(shares.get(i).index());
             }
+        }
+        return new Decoding(f[0], wrongIndices);
+    }
 
-            // Add the contribution of this share to the secret: f(x_i) * λ_i
+    /**
+     * Creates a reconstructor that accepts shares one at a time and yields the secret as soon as the t-th
+     * share is accepted, with O(k) field operations per arrival and no final interpolation pass.
+     *
+     * @param t      The threshold value representing the minimum number of shares required to reconstruct the secret.
+     * @param verify Whether each arriving share is checked with {@link #verifyShare(Share)} and rejected if invalid.
+     * @return An empty reconstructor.
+     * @throws IllegalArgumentException if t is not positive.
+     */
+    public IncrementalReconstructor incrementalReconstructor(int t, boolean verify) {
+        return new IncrementalReconstructor(scalars, t, this::point,
+                verify ? this::verifyShare : share -> true);
+    }
 
-            // f(x_i) is the share's value
-            Element f_xi = shares.get(i).value1();
-            // secret += f(x_i) * λ_i
-            secret = secret.add(f_xi.mul(lambda_i));
+    /**
+     * Combines partial results B_i = B^f(x_i) of k participants into B^f(0), interpolating in the exponent.
+     * <p>
+     * This is the combining step of threshold decryption and signing, where the holders publish group
+     * elements instead of their shares. The result
+     * <p>
+     * B^f(0) = Π B_i^λ_i
+     * <p>
+     * is computed as one multi-scalar multiplication instead of k separate exponentiations, with the
+     * Lagrange coefficients λ_i taken from the quorum cache shared with {@link #reconstruct(List, int, int)}.
+     *
+     * @param partials The partial results, keyed by participant index. The elements may belong to G1 or GT,
+     *                 but all to the same group.
+     * @param t        The threshold value representing the minimum number of partial results required.
+     * @param n        The total number of participants.
+     * @return A new element holding B^f(0).
+     * @throws IllegalArgumentException if fewer than t partial results are supplied.
+     */
+    public Element combineInExponent(Map<Integer, Element> partials, int t, int n) {
+        if (partials.isEmpty() || partials.size() < t) {
+            throw new IllegalArgumentException("Not enough partial results to combine. " +
+                    "At least " + t + " are required.");
+        }
+        int[] indices = new int[partials.size()];
+        Element[] bases = new Element[partials.size()];
+        int position = 0;
+        for (Map.Entry<Integer, Element> partial : partials.entrySet()) {
+            indices[position] = partial.getKey();
+            bases[position] = partial.getValue();
+            position++;
         }
 
-        // Return the reconstructed secret f(0)
-        return secret;
+        Element[] lambdas = lagrangeAtZero(indices, n);
+        BigInteger[] exponents = new BigInteger[lambdas.length];
+        for (int i = 0; i < lambdas.length; i++) {
+            exponents[i] = lambdas[i].toBigInteger();
+        }
+        // G1 partials reuse the arithmetic of the generators; GT partials need their own.
+        GroupArithmetic<?> arithmetic = bases[0].getField() == pairing.getG1()
+                ? generators.arithmetic() : GroupArithmetic.of(bases[0].getField());
+        return MultiScalarMul.multiExp(arithmetic, bases, exponents);
+    }
+
+    /**
+     * Computes f(0) = Σ f(x_i) * λ_i from the shares' first values.
+     *
+     * @param lambdas The Lagrange coefficients at zero, in the order of the shares. Not modified.
+     * @param shares  The shares.
+     * @return f(0).
+     */
+    private Element interpolateAtZero(Element[] lambdas, List<Share> shares) {
+        Element[] values1 = new Element[shares.size()];
+        for (int i = 0; i < shares.size(); i++) {
+            values1[i] = shares.get(i).value1();
+        }
+        return scalars.innerProduct(lambdas, values1);
+    }
+
+    /**
+     * Returns the Lagrange coefficients at zero for the shares' points, from the quorum cache if possible.
+     *
+     * @param shares The shares, with distinct indices.
+     * @param n      The total number of participants.
+     * @return The immutable coefficients λ_i, in the order of the shares.
+     * @throws IllegalArgumentException if two shares have the same index.
+     */
+    private Element[] lagrangeAtZero(List<Share> shares, int n) {
+        int[] indices = new int[shares.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = shares.get(i).index();
+        }
+        return lagrangeAtZero(indices, n);
+    }
+
+    /**
+     * Returns the Lagrange coefficients at zero for the given participants' points, from the quorum cache if possible.
+     *
+     * @param indices The distinct participant indices.
+     * @param n       The total number of participants.
+     * @return The immutable coefficients λ_i, in the order of the indices.
+     * @throws IllegalArgumentException if two indices are equal.
+     */
+    private Element[] lagrangeAtZero(int[] indices, int n) {
+        return lagrangeCache.get(indices, sorted -> computeLagrangeAtZero(sorted, n));
+    }
+
+    /**
+     * Returns the reconstruction engine of the committee 1..n, building its tables outside the lock if the
+     * committee is not among the recently used ones.
+     */
+    private CommitteeReconstructor committee(int n) {
+        CommitteeReconstructor committee;
+        synchronized (committees) {
+            committee = committees.get(n);
+        }
+        if (committee == null) {
+            committee = new CommitteeReconstructor(scalars, n);
+            synchronized (committees) {
+                committees.put(n, committee);
+            }
+        }
+        return committee;
+    }
+
+    /**
+     * Computes the Lagrange coefficients at zero for the given participants' points.
+     *
+     * @param indices The distinct participant indices.
+     * @param n       The total number of participants.
+     * @return The coefficients λ_i, in the order of the indices.
+     * @throws IllegalArgumentException if two indices are equal.
+     */
+    private Element[] computeLagrangeAtZero(int[] indices, int n) {
+        boolean inCommittee = domain == null && n <= COMMITTEE_TABLE_LIMIT
+                && n <= (long) COMMITTEE_TABLE_FACTOR * indices.length;
+        for (int index : indices) {
+            inCommittee &= index >= 1 && index <= n;
+        }
+        if (inCommittee) {
+            return committee(n).lagrangeAtZero(indices);
+        }
+
+        BigInteger[] points = new BigInteger[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            points[i] = point(indices[i]);
+        }
+        return LagrangeCoefficients.atZero(scalars, points);
+    }
+
+    /**
+     * Returns the number of reconstructions whose Lagrange coefficients were found in the quorum cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long lagrangeCacheHits() {
+        return lagrangeCache.hits();
+    }
+
+    /**
+     * Returns the number of reconstructions whose Lagrange coefficients had to be computed.
+     *
+     * @return The number of cache misses.
+     */
+    public long lagrangeCacheMisses() {
+        return lagrangeCache.misses();
     }
 
     /**
      * Verifies whether a given share is valid using commitments.
+     * <p>
+     * For positive indices of at most {@code SHORT_INDEX_BITS} bits the commitment polynomial is evaluated
+     * Horner-style in the exponent, (((C_{t-1})^x * C_{t-2})^x * ...) * C_0, which needs only short
+     * exponentiations by x. Every other index, including zero and negative ones, and roots-of-unity points
+     * fall back to one multi-exponentiation Π C_i^(x^i) with x reduced modulo r and full-width exponents.
+     * On a roots-of-unity domain, a share whose index names no point of the domain is invalid.
      *
      * @param share The share to be verified.
      * @return true if the share is valid, false otherwise.
+     * @throws IllegalArgumentException if the share carries no commitments.
      */
     public boolean verifyShare(Share share) {
+        if (!inDomain(share.index())) {
+            return false;
+        }
+        if (domain == null && share.index() > 0 && share.index() < 1 << SHORT_INDEX_BITS) {
+            return verifyShareHorner(generators, share);
+        }
+
         // Left-hand side of the verification equation: g^(f_x) * h^(g_x).
-        Element lhs = g.duplicate().powZn(share.value1()).add(h.duplicate().powZn(share.value2()));
-        // Right-hand side of the verification equation.
-        Element rhs = pairing.getG1().newZeroElement();
+        Element lhs = generators.pow(share.value1(), share.value2());
 
-        // Compute the right-hand side using commitments.
-        BigInteger index = BigInteger.valueOf(share.index());
-        for (int i = 0; i < share.commitment().size(); i++) {
-            Element exponent = pairing.getZr().newElement(index.pow(i));
-            rhs = rhs.add(share.commitment().get(i).duplicate().powZn(exponent));
-        }
+        // Right-hand side of the verification equation: Π C_i^(x^i).
+        Element rhs = evaluateCommitmentsMultiExp(share.commitment(), point(share.index()));
 
         // Verify if g^share_value equals the product of commitments.
         return lhs.isEqual(rhs);
     }
 
     /**
-     * Evaluates a polynomial at a given point x using Horner's method.
+     * Verifies a share with the commitment polynomial evaluated Horner-style in the exponent, comparing both
+     * sides in the internal representation of the group so that neither is converted into an element.
+     */
+    private static <P> boolean verifyShareHorner(FixedBaseComb<P> generators, Share share) {
+        GroupArithmetic<P> arithmetic = generators.arithmetic();
+        P lhs = generators.powInternal(share.value1().toBigInteger(), share.value2().toBigInteger());
+        P rhs = hornerInExponent(arithmetic, toInternal(arithmetic, share.commitment()), share.index());
+        return arithmetic.isEqual(lhs, rhs);
+    }
+
+    /**
+     * Verifies all shares of one dealing with a single randomized check.
+     * <p>
+     * Each share equation g^(a_j) * h^(b_j) = Π C_i^(x_j^i) is weighted with a short random ρ_j and the
+     * equations are multiplied together, giving
+     * <p>
+     * g^(Σ ρ_j a_j) * h^(Σ ρ_j b_j) = Π C_i^(Σ ρ_j x_j^i)
+     * <p>
+     * which costs one fixed-base double exponentiation and one multi-exponentiation over the t commitments.
+     * G1 has a cofactor, so the commitments are first checked to lie in the subgroup of prime order r, with
+     * t exponentiations C_i^r = 1 the first time a dealing is seen; only then does a batch containing an invalid
+     * share pass with probability at most 2^-{@code BATCH_WEIGHT_BITS}. If the combined check fails, the k
+     * invalid shares are located with O(k log n) further combined checks. Shares of a dealing whose commitments
+     * fail the subgroup check are verified one by one.
+     *
+     * @param shares The shares to be verified. All of them must carry the same commitments.
+     * @return An array holding, for each share in order, true if it is valid and false otherwise.
+     * @throws IllegalArgumentException if the shares do not belong to the same dealing.
+     */
+    public boolean[] verifyShares(List<Share> shares) {
+        boolean[] result = new boolean[shares.size()];
+        if (shares.isEmpty()) {
+            return result;
+        }
+        List<Element> commitments = shares.get(0).commitment();
+        for (Share share : shares) {
+            if (!sameCommitments(commitments, share.commitment())) {
+                throw new IllegalArgumentException("All shares must belong to the same dealing.");
+            }
+        }
+
+        // Shares naming no point of the domain have no equation to combine, and are rejected one by one.
+        // Weights act modulo r only on the prime-order subgroup, where a small-order component cannot cancel.
+        boolean combinable = true;
+        for (Share share : shares) {
+            combinable &= inDomain(share.index());
+        }
+        if (!combinable || !inPrimeOrderSubgroup(commitments)) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = verifyShare(shares.get(i));
+            }
+            return result;
+        }
+
+        // Locate invalid shares by group testing, which costs a single combined check when all are valid.
+        Arrays.fill(result, true);
+        GroupTestingVerifier verifier = new GroupTestingVerifier(
+                batch -> batch.size() == 1 ? verifyShare(batch.get(0)) : batchCheck(batch));
+        for (int position : verifier.findInvalid(shares)) {
+            result[position] = false;
+        }
+        return result;
+    }
+
+    /**
+     * Verifies the shares one participant received from many dealers, e.g. in one round of distributed key
+     * generation.
+     * <p>
+     * This method exists for API shape only, so that a participant can hand over all its shares of a round in one
+     * call; it is not a batch verifier and costs exactly as much as calling {@link #verifyShare(Share)} on every
+     * share. Combining the share equations of different dealers with random weights is only sound if every
+     * dealer's commitments lie in the subgroup of prime order r, since otherwise torsion of order 2, 3 or 17 in the
+     * commitments cancels with probability far above the weights' bound. Checking subgroup membership costs a
+     * full-width exponentiation per commitment, more than verifying the share against those commitments directly,
+     * so no combination of dealings pays for itself.
+     *
+     * @param shares The shares to be verified, one per dealing, all for the same participant index.
+     * @return An array holding, for each share in order, true if it is valid and false otherwise.
+     * @throws IllegalArgumentException if the shares do not all have the same index.
+     */
+    public boolean[] verifyDealings(List<Share> shares) {
+        boolean[] result = new boolean[shares.size()];
+        if (shares.isEmpty()) {
+            return result;
+        }
+        int index = shares.get(0).index();
+        for (Share share : shares) {
+            if (share.index() != index) {
+                throw new IllegalArgumentException("All shares must have the same participant index.");
+            }
+        }
+        for (int i = 0; i < shares.size(); i++) {
+            result[i] = verifyShare(shares.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Audits every share of a dealing against the commitment evaluations E_x = Π C_i^(x^i).
+     * <p>
+     * The evaluations E_1, ..., E_m for m the largest share index are tabulated once by
+     * {@link #evaluateCommitments(List, int)}, after which each share costs one fixed-base double
+     * exponentiation g^(f_x) * h^(g_x) and a comparison. The table is only built when the indices are dense,
+     * i.e. m is at most {@code AUDIT_TABLE_FACTOR} times the number of shares and at most
+     * {@code AUDIT_TABLE_LIMIT}; sparse or very large indices are checked one share at a time with
+     * {@link #verifyShare(Share)} instead.
+     *
+     * @param shares The shares to be audited. All of them must carry the same commitments and have
+     *               positive indices.
+     * @return An array holding, for each share in order, true if it is valid and false otherwise.
+     * @throws IllegalArgumentException if the shares do not belong to the same dealing, an index is
+     *                                  not positive, or there are no commitments.
+     * @throws IllegalStateException    if participants are assigned roots of unity instead of integers.
+     */
+    public boolean[] auditShares(List<Share> shares) {
+        if (domain != null) {
+            throw new IllegalStateException("Auditing by forward differences requires integer participant points.");
+        }
+        boolean[] result = new boolean[shares.size()];
+        if (shares.isEmpty()) {
+            return result;
+        }
+        List<Element> commitments = shares.get(0).commitment();
+        int maxIndex = 0;
+        for (Share share : shares) {
+            if (!sameCommitments(commitments, share.commitment())) {
+                throw new IllegalArgumentException("All shares must belong to the same dealing.");
+            }
+            if (share.index() <= 0) {
+                throw new IllegalArgumentException("Share indices must be positive.");
+            }
+            maxIndex = Math.max(maxIndex, share.index());
+        }
+
+        if (maxIndex <= AUDIT_TABLE_LIMIT && maxIndex <= (long) AUDIT_TABLE_FACTOR * shares.size()) {
+            audit(generators, shares, commitments, maxIndex, result);
+        } else {
+            for (int j = 0; j < shares.size(); j++) {
+                result[j] = verifyShare(shares.get(j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks every share against the tabulated commitment evaluations, comparing both sides in the internal
+     * representation of the group.
+     */
+    private static <P> void audit(FixedBaseComb<P> generators, List<Share> shares, List<Element> commitments,
+                                  int maxIndex, boolean[] result) {
+        GroupArithmetic<P> arithmetic = generators.arithmetic();
+        List<P> evaluations = tabulateCommitments(arithmetic, commitments, maxIndex);
+        for (int j = 0; j < shares.size(); j++) {
+            Share share = shares.get(j);
+            P lhs = generators.powInternal(share.value1().toBigInteger(), share.value2().toBigInteger());
+            result[j] = arithmetic.isEqual(lhs, evaluations.get(share.index() - 1));
+        }
+    }
+
+    /**
+     * Tabulates the commitment evaluations E_x = Π C_i^(x^i) for x = 1..n by forward differences in the group.
+     * <p>
+     * E_1, ..., E_t are computed Horner-style in the exponent and turned into the differences
+     * Δ^0 E_1, ..., Δ^(t-1) E_1, where Δ E_x = E_(x+1) / E_x. Stepping to the next index then costs t - 1
+     * group operations and no exponentiations.
+     *
+     * @param commitments The commitments C_0, ..., C_{t-1} of a dealing.
+     * @param n           The number of evaluations to tabulate.
+     * @return The list E_1, ..., E_n.
+     * @throws IllegalArgumentException if there are no commitments.
+     */
+    public List<Element> evaluateCommitments(List<Element> commitments, int n) {
+        return evaluateCommitments(generators.arithmetic(), commitments, n);
+    }
+
+    private static <P> List<Element> evaluateCommitments(GroupArithmetic<P> arithmetic, List<Element> commitments,
+                                                         int n) {
+        return arithmetic.toElements(tabulateCommitments(arithmetic, commitments, n));
+    }
+
+    /**
+     * Tabulates E_1, ..., E_n by forward differences in the internal representation of the group.
+     */
+    private static <P> List<P> tabulateCommitments(GroupArithmetic<P> arithmetic, List<Element> commitments,
+                                                   int n) {
+        if (commitments.isEmpty()) {
+            throw new IllegalArgumentException("At least one commitment is required.");
+        }
+        List<P> bases = toInternal(arithmetic, commitments);
+        int t = bases.size();
+        int setup = Math.min(t, n);
+
+        // Setup: E_1, ..., E_t, then the difference table in place.
+        List<P> differences = new ArrayList<>(setup);
+        for (int k = 0; k < setup; k++) {
+            differences.add(hornerInExponent(arithmetic, bases, k + 1));
+        }
+        for (int j = 1; j < setup; j++) {
+            for (int k = setup - 1; k >= j; k--) {
+                P inverse = arithmetic.copy(differences.get(k - 1));
+                arithmetic.invert(inverse);
+                arithmetic.mul(differences.get(k), inverse);
+            }
+        }
+
+        // Walk x = 1..n, emitting Δ^0 E_x and advancing the differences by one step.
+        List<P> evaluations = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            evaluations.add(arithmetic.copy(differences.get(0)));
+            for (int j = 0; j < setup - 1; j++) {
+                arithmetic.mul(differences.get(j), differences.get(j + 1));
+            }
+        }
+        return evaluations;
+    }
+
+    /**
+     * Runs the randomized combined check over shares that carry the same commitments, which must lie in the
+     * subgroup of prime order r.
+     *
+     * @param shares The shares to be checked.
+     * @return true if the combined equation holds, false otherwise.
+     */
+    private boolean batchCheck(List<Share> shares) {
+        BigInteger order = pairing.getZr().getOrder();
+        List<Element> commitments = shares.get(0).commitment();
+
+        // Σ ρ_j a_j, Σ ρ_j b_j and, for each commitment C_i, Σ ρ_j x_j^i.
+        BigInteger value1 = BigInteger.ZERO;
+        BigInteger value2 = BigInteger.ZERO;
+        BigInteger[] exponents = new BigInteger[commitments.size()];
+        Arrays.fill(exponents, BigInteger.ZERO);
+        for (Share share : shares) {
+            BigInteger weight = new BigInteger(BATCH_WEIGHT_BITS, random);
+            value1 = value1.add(weight.multiply(share.value1().toBigInteger()));
+            value2 = value2.add(weight.multiply(share.value2().toBigInteger()));
+
+            BigInteger index = point(share.index());
+            BigInteger term = weight;
+            for (int i = 0; i < exponents.length; i++) {
+                exponents[i] = exponents[i].add(term);
+                term = term.multiply(index).mod(order);
+            }
+        }
+        for (int i = 0; i < exponents.length; i++) {
+            exponents[i] = exponents[i].mod(order);
+        }
+
+        Element lhs = generators.pow(value1.mod(order), value2.mod(order));
+        Element rhs = MultiScalarMul.multiExp(generators.arithmetic(), commitments.toArray(new Element[0]),
+                exponents);
+        return lhs.isEqual(rhs);
+    }
+
+    /**
+     * Checks whether two commitment lists are the same, comparing element by element.
+     */
+    private static boolean sameCommitments(List<Element> a, List<Element> b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).isEqual(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether all commitments lie in the subgroup of prime order r, remembering the lists that pass.
+     *
+     * @param commitments The commitments C_0, ..., C_{t-1}.
+     * @return true if every commitment has order dividing r, false otherwise.
+     */
+    private boolean inPrimeOrderSubgroup(List<Element> commitments) {
+        CommitmentList key = new CommitmentList(commitments);
+        synchronized (subgroupMembers) {
+            if (subgroupMembers.get(key) != null) {
+                return true;
+            }
+        }
+        if (!inPrimeOrderSubgroup(generators.arithmetic(), commitments, pairing.getZr().getOrder())) {
+            return false;
+        }
+        synchronized (subgroupMembers) {
+            subgroupMembers.put(key, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether all commitments lie in the subgroup of prime order r, i.e. C_i^r = 1 for every i.
+     *
+     * @param arithmetic  The arithmetic of the group.
+     * @param commitments The commitments C_0, ..., C_{t-1}.
+     * @param order       The prime order r.
+     * @return true if every commitment has order dividing r, false otherwise.
+     */
+    private static <P> boolean inPrimeOrderSubgroup(GroupArithmetic<P> arithmetic, List<Element> commitments,
+                                                    BigInteger order) {
+        P identity = arithmetic.identity();
+        for (Element commitment : commitments) {
+            P power = WindowedNaf.pow(arithmetic, arithmetic.fromElement(commitment), order);
+            if (!arithmetic.isEqual(power, identity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The commitments of a dealing, compared by their encoding. Each element is prefixed with its identity
+     * flag, which {@link Element#toBytes()} omits, so that the identity cannot collide with the point (0, 0).
+     */
+    private record CommitmentList(byte[] encoding) {
+
+        CommitmentList(List<Element> commitments) {
+            this(encode(commitments));
+        }
+
+        private static byte[] encode(List<Element> commitments) {
+            ByteArrayOutputStream encoding = new ByteArrayOutputStream();
+            for (Element commitment : commitments) {
+                encoding.write(commitment.isOne() ? 1 : 0);
+                encoding.writeBytes(commitment.toBytes());
+            }
+            return encoding.toByteArray();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CommitmentList list && Arrays.equals(encoding, list.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(encoding);
+        }
+    }
+
+    /**
+     * Evaluates Π C_i^(x^i) Horner-style in the exponent, (((C_{t-1})^x * C_{t-2})^x * ...) * C_0, using
+     * short wNAF exponentiations by x on the internal representation of the group.
+     *
+     * @param arithmetic  The arithmetic of the group.
+     * @param commitments The commitments C_0, ..., C_{t-1}. Not modified.
+     * @param x           The participant index.
+     * @return A new value holding Π C_i^(x^i).
+     */
+    private static <P> P hornerInExponent(GroupArithmetic<P> arithmetic, List<P> commitments, int x) {
+        if (commitments.isEmpty()) {
+            throw new IllegalArgumentException("At least one commitment is required.");
+        }
+        BigInteger exponent = BigInteger.valueOf(x);
+        P result = arithmetic.copy(commitments.get(commitments.size() - 1));
+        for (int i = commitments.size() - 2; i >= 0; i--) {
+            result = WindowedNaf.pow(arithmetic, result, exponent);
+            arithmetic.mul(result, commitments.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Converts group elements into the internal representation of their group.
+     */
+    private static <P> List<P> toInternal(GroupArithmetic<P> arithmetic, List<Element> elements) {
+        List<P> values = new ArrayList<>(elements.size());
+        for (Element element : elements) {
+            values.add(arithmetic.fromElement(element));
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates Π C_i^(x^i) as one multi-exponentiation with exponents x^i mod r.
+     *
+     * @param commitments The commitments C_0, ..., C_{t-1}.
+     * @param x           The participant's point.
+     * @return A new element holding Π C_i^(x^i).
+     */
+    private Element evaluateCommitmentsMultiExp(List<Element> commitments, BigInteger x) {
+        BigInteger order = pairing.getZr().getOrder();
+        BigInteger point = x.mod(order);
+        BigInteger[] exponents = new BigInteger[commitments.size()];
+        BigInteger power = BigInteger.ONE;
+        for (int i = 0; i < exponents.length; i++) {
+            exponents[i] = power;
+            power = power.multiply(point).mod(order);
+        }
+        return MultiScalarMul.multiExp(generators.arithmetic(), commitments.toArray(new Element[0]), exponents);
+    }
+
+    /**
+     * Returns the evaluation point assigned to a participant.
+     *
+     * @param index The participant index.
+     * @return The integer index itself, or ω^(index-1) over a roots-of-unity domain.
+     */
+    private BigInteger point(int index) {
+        return domain == null ? BigInteger.valueOf(index) : domain.point(index);
+    }
+
+    /**
+     * Checks whether an index names a participant's point, i.e. lies in 1..N on a roots-of-unity domain of size N.
+     * Without a domain every index is the integer point itself.
+     */
+    private boolean inDomain(int index) {
+        return domain == null || (index >= 1 && index <= domain.size());
+    }
+
+    /**
+     * Chooses how f and g are evaluated at the participants' points.
+     *
+     * @param t           The threshold, i.e. the number of coefficients.
+     * @param n           The number of participants.
+     * @param consecutive Whether the participants' indices are exactly 1..n.
+     * @return The evaluation strategy.
+     */
+    private EvaluationStrategy selectEvaluationStrategy(int t, int n, boolean consecutive) {
+        if (domain != null) {
+            return EvaluationStrategy.NUMBER_THEORETIC_TRANSFORM;
+        }
+        int forwardDifferenceFactor = kernel != null && (long) n * t >= VECTOR_KERNEL_MIN_PRODUCTS
+                ? KERNEL_FORWARD_DIFFERENCE_FACTOR : FORWARD_DIFFERENCE_FACTOR;
+        if (consecutive && t > 1 && (long) n >= (long) forwardDifferenceFactor * t) {
+            return EvaluationStrategy.FORWARD_DIFFERENCE;
+        }
+        int multipointThreshold = kernel != null ? MULTIPOINT_MIN_THRESHOLD_WITH_KERNEL : MULTIPOINT_MIN_THRESHOLD;
+        if (t >= multipointThreshold && n >= t) {
+            return EvaluationStrategy.MULTIPOINT;
+        }
+        return EvaluationStrategy.HORNER;
+    }
+
+    /**
+     * Evaluates f and g at the participants' points by running Horner's method once per point.
+     * <p>
+     * When the Vector API is available, the SIMD kernel runs Horner's method for several points at once,
+     * one per vector lane.
+     *
+     * @param fCoefficients The coefficients of f, lowest degree first.
+     * @param gCoefficients The coefficients of g, lowest degree first.
+     * @param indices       The participant indices.
+     * @param fValues       Receives f at each participant's point.
+     * @param gValues       Receives g at each participant's point.
+     */
+    private void evaluateByHorner(List<Element> fCoefficients, List<Element> gCoefficients, int[] indices,
+                                  Element[] fValues, Element[] gValues) {
+        if (kernel != null && fValues.length >= kernel.lanes()
+                && (long) fValues.length * fCoefficients.size() >= VECTOR_KERNEL_MIN_PRODUCTS) {
+            BigInteger[] points = new BigInteger[fValues.length];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = point(indices[i]);
+            }
+            kernel.evaluate(fCoefficients, gCoefficients, points, fValues, gValues);
+            return;
+        }
+
+        long[][] f = toMontgomery(fCoefficients);
+        long[][] g = toMontgomery(gCoefficients);
+        long[] fResult = scalars.newZero();
+        long[] gResult = scalars.newZero();
+        for (int i = 0; i < fValues.length; i++) {
+            evaluatePolynomials(f, g, scalars.fromBigInteger(point(indices[i])), fResult, gResult);
+            fValues[i] = scalars.toElement(fResult);
+            gValues[i] = scalars.toElement(gResult);
+        }
+    }
+
+    /**
+     * Evaluates f and g at x = 1..n by forward differences.
+     * <p>
+     * A polynomial of degree d = t - 1 is evaluated at x = 1..t by Horner's method and turned into the
+     * differences Δ^0 p(1), ..., Δ^d p(1), where Δ^d p is constant. Stepping from x to x + 1 then only
+     * needs Δ^j p(x + 1) = Δ^j p(x) + Δ^(j+1) p(x) for j = 0..d-1, i.e. d additions and no multiplications.
      *
-     * @param coefficients The list of coefficients of the polynomial.
-     * @param x            The point at which the polynomial is to be evaluated.
-     * @return The polynomial evaluated at the point x.
+     * @param fCoefficients The coefficients of f, lowest degree first.
+     * @param gCoefficients The coefficients of g, lowest degree first.
+     * @param fValues       Receives f(1), ..., f(n). Must have at least t entries.
+     * @param gValues       Receives g(1), ..., g(n). Must have at least t entries.
      */
-    private Element evaluatePolynomial(List<Element> coefficients, BigInteger x) {
-        Element result = pairing.getZr().newZeroElement();
-        Element power = pairing.getZr().newOneElement();
+    private void evaluateByForwardDifferences(List<Element> fCoefficients, List<Element> gCoefficients,
+                                              Element[] fValues, Element[] gValues) {
+        int t = fCoefficients.size();
+        long[][] f = toMontgomery(fCoefficients);
+        long[][] g = toMontgomery(gCoefficients);
 
-        // Apply Horner's method to evaluate the polynomial.
-        for (Element coefficient : coefficients) {
-            result = result.add(coefficient.duplicate().mul(power));
-            power = power.duplicate().mul(pairing.getZr().newElement(x));
+        // Setup: p(1), ..., p(t) by Horner's method, then the difference table in place.
+        long[][] fDifferences = new long[t][];
+        long[][] gDifferences = new long[t][];
+        for (int k = 0; k < t; k++) {
+            fDifferences[k] = scalars.newZero();
+            gDifferences[k] = scalars.newZero();
+            evaluatePolynomials(f, g, scalars.fromLong(k + 1), fDifferences[k], gDifferences[k]);
+        }
+        for (int j = 1; j < t; j++) {
+            for (int k = t - 1; k >= j; k--) {
+                scalars.sub(fDifferences[k], fDifferences[k - 1], fDifferences[k]);
+                scalars.sub(gDifferences[k], gDifferences[k - 1], gDifferences[k]);
+            }
         }
 
+        // Walk x = 1..n, emitting Δ^0 p(x) and advancing the differences by one step.
+        for (int i = 0; i < fValues.length; i++) {
+            fValues[i] = scalars.toElement(fDifferences[0]);
+            gValues[i] = scalars.toElement(gDifferences[0]);
+            for (int j = 0; j < t - 1; j++) {
+                scalars.add(fDifferences[j], fDifferences[j + 1], fDifferences[j]);
+                scalars.add(gDifferences[j], gDifferences[j + 1], gDifferences[j]);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the polynomials f and g at a given point x together using Horner's method.
+     * <p>
+     * f(x) = (...((f_{t-1} * x + f_{t-2}) * x + f_{t-3}) ...) * x + f_0
+     * <p>
+     * The arithmetic runs on Montgomery-form limbs, and the results are accumulated in place in the
+     * caller-supplied arrays, so nothing is allocated per coefficient.
+     *
+     * @param fCoefficients The coefficients of f in Montgomery form, lowest degree first.
+     * @param gCoefficients The coefficients of g in Montgomery form, lowest degree first. Must have the same
+     *                      length as f's.
+     * @param x             The point at which the polynomials are to be evaluated, in Montgomery form.
+     * @param fResult       Receives f(x).
+     * @param gResult       Receives g(x).
+     */
+    private void evaluatePolynomials(long[][] fCoefficients, long[][] gCoefficients, long[] x,
+                                     long[] fResult, long[] gResult) {
+        int degree = fCoefficients.length - 1;
+        System.arraycopy(fCoefficients[degree], 0, fResult, 0, fResult.length);
+        System.arraycopy(gCoefficients[degree], 0, gResult, 0, gResult.length);
+        for (int i = degree - 1; i >= 0; i--) {
+            scalars.mul(fResult, x, fResult);
+            scalars.add(fResult, fCoefficients[i], fResult);
+            scalars.mul(gResult, x, gResult);
+            scalars.add(gResult, gCoefficients[i], gResult);
+        }
+    }
+
+    /**
+     * Converts coefficients into Montgomery form.
+     */
+    private long[][] toMontgomery(List<Element> coefficients) {
+        long[][] result = new long[coefficients.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = scalars.fromElement(coefficients.get(i));
+        }
         return result;
     }
 
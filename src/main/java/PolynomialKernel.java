@@ -0,0 +1,52 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Batched evaluation of the dealing polynomials f and g at many points at once.
+ * <p>
+ * The SIMD implementation, {@code VectorPolynomialKernel}, is written against the incubating Vector API
+ * and is only loaded, reflectively, when the jdk.incubator.vector module is present in the boot layer
+ * (e.g. with {@code --add-modules jdk.incubator.vector}). Otherwise {@link #vectorized(Field)} returns
+ * null and callers keep the scalar Horner loop.
+ */
+interface PolynomialKernel {
+
+    /**
+     * Returns the number of points evaluated together by one pass of the kernel.
+     */
+    int lanes();
+
+    /**
+     * Evaluates f and g at every point.
+     *
+     * @param fCoefficients The coefficients of f, lowest degree first.
+     * @param gCoefficients The coefficients of g, lowest degree first. Must have the same size as f's.
+     * @param points        The points.
+     * @param fValues       Receives f at each point.
+     * @param gValues       Receives g at each point.
+     */
+    void evaluate(List<Element> fCoefficients, List<Element> gCoefficients, BigInteger[] points,
+                  Element[] fValues, Element[] gValues);
+
+    /**
+     * Loads the SIMD kernel for the given field if the Vector API is available.
+     *
+     * @param zr The field Zr.
+     * @return The kernel, or null if the Vector API is unavailable or does not suit the field.
+     */
+    static PolynomialKernel vectorized(Field<Element> zr) {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (PolynomialKernel) Class.forName("VectorPolynomialKernel")
+                    .getDeclaredConstructor(Field.class)
+                    .newInstance(zr);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.math.BigInteger;
+
+/**
+ * Decoder for the Reed-Solomon code formed by the values of a polynomial of degree less than t at k fixed
+ * points, correcting up to ⌊(k - t) / 2⌋ wrong values with Zr arithmetic only.
+ * <p>
+ * Gao's algorithm is used. With g_0 = Π (X - x_i) and g_1 the interpolation polynomial of the received values,
+ * the extended Euclidean algorithm on (g_0, g_1) is stopped at the first remainder g of degree below
+ * (k + t) / 2, with Bézout coefficient v such that g ≡ v * g_1 (mod g_0). If at most ⌊(k - t) / 2⌋ values
+ * are wrong, v divides g and f = g / v is the sent polynomial; v vanishes exactly at the wrong points.
+ * Everything takes O(k^2) field operations and one inversion per Euclidean step.
+ * <p>
+ * Reference:
+ * Gao, Shuhong. "A new algorithm for decoding Reed-Solomon codes."
+ * Communications, Information and Network Security. Boston, MA: Springer US, 2003. 55-68.
+ */
+final class ReedSolomonDecoder {
+
+    /**
+     * The field Zr.
+     * Polynomial arithmetic over Zr.
+     * Subproduct tree over the points, whose root is g_0 = Π (X - x_i).
+     * The points x_i, and their barycentric weights v_i = 1 / Π_{j ≠ i} (x_i - x_j).
+     */
+    private final Field<Element> zr;
+    private final ZrPolynomials polynomials;
+    private final ZrPolynomials.SubproductTree tree;
+    private final Element[] points;
+    private final Element[] weights;
+
+    /**
+     * Prepares the decoder for a fixed set of points.
+     *
+     * @param field       The Zr arithmetic engine, used for the barycentric weights.
+     * @param polynomials Polynomial arithmetic over Zr.
+     * @param points      The distinct evaluation points.
+     * @throws IllegalArgumentException if two points coincide.
+     */
+    ReedSolomonDecoder(MontgomeryZr field, ZrPolynomials polynomials, BigInteger[] points) {
+        this.zr = field.field();
+        this.polynomials = polynomials;
+        this.tree = polynomials.new SubproductTree(points);
+        this.points = new Element[points.length];
+        this.weights = new Element[points.length];
+        long[][] weights = LagrangeCoefficients.weights(field, points);
+        for (int i = 0; i < points.length; i++) {
+            this.points[i] = zr.newElement(points[i]).getImmutable();
+            this.weights[i] = field.toElement(weights[i]).getImmutable();
+        }
+    }
+
+    /**
+     * Decodes received values into the polynomial of degree less than t that agrees with all but at most
+     * ⌊(k - t) / 2⌋ of them.
+     *
+     * @param values    The received values, one per point.
+     * @param dimension The dimension t of the code, at most k.
+     * @return The coefficients of the decoded polynomial, t of them, or null if the values are too corrupted.
+     */
+    Element[] decode(Element[] values, int dimension) {
+        int k = points.length;
+        Element[] g0 = trim(copy(tree.product()));
+        Element[] g1 = trim(interpolate(values));
+
+        // Extended Euclid on (g_0, g_1), tracking only the coefficient of g_1, until deg r < (k + t) / 2.
+        Element[] r0 = g0;
+        Element[] r1 = g1;
+        Element[] v0 = new Element[0];
+        Element[] v1 = {zr.newOneElement()};
+        while (2 * (r1.length - 1) >= k + dimension) {
+            Element[][] division = divide(r0, r1);
+            Element[] next = subtract(v0, polynomials.multiply(division[0], v1));
+            r0 = r1;
+            r1 = division[1];
+            v0 = v1;
+            v1 = next;
+        }
+
+        // f = g / v, which must be exact and of degree below t.
+        Element[][] division = divide(r1, v1);
+        if (division[1].length != 0 || division[0].length > dimension) {
+            return null;
+        }
+        Element[] result = new Element[dimension];
+        for (int i = 0; i < dimension; i++) {
+            result[i] = i < division[0].length ? division[0][i] : zr.newZeroElement();
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a polynomial at every point.
+     *
+     * @param p The polynomial.
+     * @return The values p(x_i), in the order of the points.
+     */
+    Element[] evaluate(Element[] p) {
+        return tree.evaluate(p);
+    }
+
+    /**
+     * Interpolates the values in Lagrange form, Σ y_i v_i g_0 / (X - x_i).
+     */
+    private Element[] interpolate(Element[] values) {
+        Element[] g0 = tree.product();
+        int k = points.length;
+        Element[] result = new Element[k];
+        for (int j = 0; j < k; j++) {
+            result[j] = zr.newZeroElement();
+        }
+        Element scale = zr.newElement();
+        Element quotient = zr.newElement();
+        Element term = zr.newElement();
+        for (int i = 0; i < k; i++) {
+            scale.set(values[i]).mul(weights[i]);
+            if (scale.isZero()) {
+                continue;
+            }
+            // Synthetic division of g_0 by (X - x_i): q_{j-1} = g_{0,j} + x_i q_j.
+            quotient.setToZero();
+            for (int j = k; j > 0; j--) {
+                quotient.mul(points[i]).add(g0[j]);
+                result[j - 1].add(term.set(quotient).mul(scale));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Divides a by a non-zero b.
+     *
+     * @return The trimmed quotient and remainder.
+     */
+    private Element[][] divide(Element[] a, Element[] b) {
+        int divisorDegree = b.length - 1;
+        if (a.length <= divisorDegree) {
+            return new Element[][]{new Element[0], copy(a)};
+        }
+        Element[] work = copy(a);
+        Element[] quotient = new Element[a.length - divisorDegree];
+        Element leadInverse = b[divisorDegree].duplicate().invert();
+        Element scratch = zr.newElement();
+        for (int i = a.length - 1; i >= divisorDegree; i--) {
+            Element factor = work[i].duplicate().mul(leadInverse);
+            quotient[i - divisorDegree] = factor;
+            for (int j = 0; j < divisorDegree; j++) {
+                work[i - divisorDegree + j].sub(scratch.set(b[j]).mul(factor));
+            }
+        }
+        Element[] remainder = new Element[divisorDegree];
+        System.arraycopy(work, 0, remainder, 0, divisorDegree);
+        return new Element[][]{trim(quotient), trim(remainder)};
+    }
+
+    private Element[] subtract(Element[] a, Element[] b) {
+        Element[] result = new Element[Math.max(a.length, b.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i < a.length ? a[i].duplicate() : zr.newZeroElement();
+            if (i < b.length) {
+                result[i].sub(b[i]);
+            }
+        }
+        return trim(result);
+    }
+
+    private static Element[] copy(Element[] p) {
+        Element[] result = new Element[p.length];
+        for (int i = 0; i < p.length; i++) {
+            result[i] = p[i].duplicate();
+        }
+        return result;
+    }
+
+    /**
+     * Drops leading zero coefficients, so that the length is the degree plus one and zero has length zero.
+     */
+    private static Element[] trim(Element[] p) {
+        int length = p.length;
+        while (length > 0 && p[length - 1].isZero()) {
+            length--;
+        }
+        if (length == p.length) {
+            return p;
+        }
+        Element[] result = new Element[length];
+        System.arraycopy(p, 0, result, 0, length);
+        return result;
+    }
+}
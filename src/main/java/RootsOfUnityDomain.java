@@ -0,0 +1,281 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Evaluation domain made of the N-th roots of unity 1, ω, ..., ω^(N-1) in Zr, for N a power of two.
+ * <p>
+ * Such a domain exists whenever 2^k divides r - 1; for the Type A parameters in a.properties,
+ * r = 2^159 + 2^107 + 1 and Zr has roots of unity of every order up to 2^107. Over this domain a
+ * polynomial is evaluated at all N points with one number-theoretic transform (NTT) in O(N log N).
+ * <p>
+ * Participant i (1-based) is assigned the point ω^(i-1).
+ */
+final class RootsOfUnityDomain {
+
+    /**
+     * Operand lengths below which the product tree of {@link #interpolateAtZero(int[], Element[])} multiplies
+     * by schoolbook rather than by NTT.
+     */
+    private static final int SCHOOLBOOK_THRESHOLD = 32;
+
+    /**
+     * The field Zr.
+     * Size N of the domain, a power of two.
+     * Powers ω^0, ..., ω^(N-1), which are both the domain points and the forward twiddle factors.
+     * N^-1 in Zr.
+     */
+    private final Field<Element> zr;
+    private final int size;
+    private final Element[] powers;
+    private final Element sizeInverse;
+
+    /**
+     * Creates the domain of the N-th roots of unity in Zr.
+     *
+     * @param zr   The field Zr.
+     * @param size The size N of the domain. Must be a power of two dividing r - 1.
+     * @throws IllegalArgumentException if size is not a power of two or Zr has no root of unity of that order.
+     */
+    RootsOfUnityDomain(Field<Element> zr, int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Domain size must be a power of two.");
+        }
+        BigInteger order = zr.getOrder();
+        BigInteger orderMinusOne = order.subtract(BigInteger.ONE);
+        int twoAdicity = orderMinusOne.getLowestSetBit();
+        int logSize = Integer.numberOfTrailingZeros(size);
+        if (logSize > twoAdicity) {
+            throw new IllegalArgumentException("Zr has no root of unity of order " + size + ".");
+        }
+        this.zr = zr;
+        this.size = size;
+
+        // A quadratic non-residue z gives a primitive 2^twoAdicity-th root z^((r-1) / 2^twoAdicity).
+        BigInteger nonResidue = BigInteger.TWO;
+        BigInteger half = orderMinusOne.shiftRight(1);
+        while (!nonResidue.modPow(half, order).equals(orderMinusOne)) {
+            nonResidue = nonResidue.add(BigInteger.ONE);
+        }
+        BigInteger root = nonResidue.modPow(orderMinusOne.shiftRight(logSize), order);
+
+        this.powers = new Element[size];
+        Element omega = zr.newElement(root).getImmutable();
+        powers[0] = zr.newOneElement().getImmutable();
+        for (int i = 1; i < size; i++) {
+            powers[i] = powers[i - 1].duplicate().mul(omega).getImmutable();
+        }
+        this.sizeInverse = zr.newElement(size).invert().getImmutable();
+    }
+
+    /**
+     * Returns the size N of the domain.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the point assigned to a participant.
+     *
+     * @param index The 1-based participant index, at most N.
+     * @return The point ω^(index-1).
+     * @throws IllegalArgumentException if the index lies outside 1..N.
+     */
+    BigInteger point(int index) {
+        if (index < 1 || index > size) {
+            throw new IllegalArgumentException("Index " + index + " lies outside the evaluation domain.");
+        }
+        return powers[index - 1].toBigInteger();
+    }
+
+    /**
+     * Evaluates a polynomial at every point of the domain with one forward NTT.
+     *
+     * @param coefficients The coefficients, lowest degree first. At most N of them.
+     * @return The values p(ω^0), ..., p(ω^(N-1)).
+     */
+    Element[] evaluate(List<Element> coefficients) {
+        Element[] values = new Element[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i < coefficients.size() ? coefficients.get(i).duplicate() : zr.newZeroElement();
+        }
+        transform(values, size);
+        return values;
+    }
+
+    /**
+     * Multiplies two polynomials by pointwise multiplication of their transforms.
+     * <p>
+     * The inverse transform is the forward transform followed by reversing entries 1..N-1 and scaling by 1 / N.
+     *
+     * @param a The coefficients of the first polynomial, lowest degree first.
+     * @param b The coefficients of the second polynomial, lowest degree first.
+     * @return The a.length + b.length - 1 coefficients of the product, which must not exceed N.
+     */
+    Element[] multiply(Element[] a, Element[] b) {
+        return multiply(a, b, size);
+    }
+
+    /**
+     * Multiplies two polynomials with transforms over the subgroup of order length, a power of two dividing N
+     * and at least a.length + b.length - 1.
+     */
+    private Element[] multiply(Element[] a, Element[] b, int length) {
+        Element[] left = new Element[length];
+        Element[] right = new Element[length];
+        for (int i = 0; i < length; i++) {
+            left[i] = i < a.length ? a[i].duplicate() : zr.newZeroElement();
+            right[i] = i < b.length ? b[i].duplicate() : zr.newZeroElement();
+        }
+        transform(left, length);
+        transform(right, length);
+        for (int i = 0; i < length; i++) {
+            left[i].mul(right[i]);
+        }
+        transform(left, length);
+
+        // 1 / length = (N / length) / N
+        Element lengthInverse = sizeInverse.duplicate().mul(size / length);
+        Element[] product = new Element[a.length + b.length - 1];
+        product[0] = left[0].mul(lengthInverse);
+        for (int i = 1; i < product.length; i++) {
+            product[i] = left[length - i].mul(lengthInverse);
+        }
+        return product;
+    }
+
+    /**
+     * Interpolates p(0) from the values of p at a subset S of the domain.
+     * <p>
+     * With M the points missing from S and Z_M(X) = Π_{m in M} (X - m), the Lagrange coefficient of a point
+     * x_i in S at zero is Z_M(x_i) / (N * Z_M(0)), because Z_S(X) * Z_M(X) = X^N - 1. Z_M is built with a
+     * product tree over its linear factors in O(|M| log^2 |M|), multiplying by NTT over the subgroups of
+     * the domain, and evaluated on the whole domain with one forward NTT. For the full domain every
+     * coefficient is 1 / N, i.e. p(0) is the constant term of the inverse NTT.
+     *
+     * @param indices The 1-based participant indices of S, without duplicates. At least one.
+     * @param values  The values p(ω^(index-1)), one per index.
+     * @return p(0), valid if p has degree less than |S|.
+     * @throws IllegalArgumentException if indices is empty, or an index lies outside 1..N or appears twice.
+     */
+    Element interpolateAtZero(int[] indices, Element[] values) {
+        if (indices.length == 0) {
+            throw new IllegalArgumentException("At least one point is required to interpolate.");
+        }
+        boolean[] present = new boolean[size];
+        for (int index : indices) {
+            point(index);
+            if (present[index - 1]) {
+                throw new IllegalArgumentException("Interpolation points must be distinct.");
+            }
+            present[index - 1] = true;
+        }
+
+        // Coefficients of Z_M(X), padded to N.
+        int[] missing = new int[size - indices.length];
+        int count = 0;
+        for (int m = 0; m < size; m++) {
+            if (!present[m]) {
+                missing[count++] = m;
+            }
+        }
+        Element[] product = missing.length == 0
+                ? new Element[]{zr.newOneElement()}
+                : vanishingPolynomial(missing, 0, missing.length);
+        Element[] vanishing = new Element[size];
+        for (int i = 0; i < size; i++) {
+            vanishing[i] = i < product.length ? product[i] : zr.newZeroElement();
+        }
+        Element vanishingAtZero = vanishing[0].duplicate();
+
+        transform(vanishing, size);
+        Element scratch = zr.newElement();
+        Element result = zr.newZeroElement();
+        for (int i = 0; i < indices.length; i++) {
+            result.add(scratch.set(vanishing[indices[i] - 1]).mul(values[i]));
+        }
+        return result.mul(sizeInverse).div(vanishingAtZero);
+    }
+
+    /**
+     * Estimates the field multiplications of {@link #interpolateAtZero(int[], Element[])} for k points.
+     * The product tree is counted as schoolbook below {@code SCHOOLBOOK_THRESHOLD} coefficients and as three
+     * transforms per multiplication above.
+     */
+    long interpolationCost(int k) {
+        long missing = size - k;
+        long logSize = Integer.numberOfTrailingZeros(size);
+        long tree = missing * Math.min(missing, SCHOOLBOOK_THRESHOLD) / 2;
+        for (long length = 2 * SCHOOLBOOK_THRESHOLD; length / 2 <= missing; length <<= 1) {
+            // missing / (length / 2) products, each three transforms and a pointwise pass of this length.
+            tree += missing * (3 * Long.numberOfTrailingZeros(length) + 4);
+        }
+        return tree + size * logSize / 2 + k;
+    }
+
+    /**
+     * Returns Π (X - ω^m) over missing[from..to), multiplying the halves of the range recursively.
+     */
+    private Element[] vanishingPolynomial(int[] missing, int from, int to) {
+        if (to - from == 1) {
+            return new Element[]{powers[missing[from]].duplicate().negate(), zr.newOneElement()};
+        }
+        int middle = (from + to) >>> 1;
+        Element[] left = vanishingPolynomial(missing, from, middle);
+        Element[] right = vanishingPolynomial(missing, middle, to);
+        if (left.length < SCHOOLBOOK_THRESHOLD) {
+            Element[] product = new Element[left.length + right.length - 1];
+            for (int i = 0; i < product.length; i++) {
+                product[i] = zr.newZeroElement();
+            }
+            Element scratch = zr.newElement();
+            for (int i = 0; i < left.length; i++) {
+                for (int j = 0; j < right.length; j++) {
+                    product[i + j].add(scratch.set(left[i]).mul(right[j]));
+                }
+            }
+            return product;
+        }
+        int productLength = left.length + right.length - 1;
+        return multiply(left, right, Integer.highestOneBit(productLength - 1) << 1);
+    }
+
+    /**
+     * In-place iterative radix-2 Cooley-Tukey transform over the subgroup of order length, a power of two
+     * dividing N, whose twiddle factors are every (N / length)-th entry of the powers of ω.
+     */
+    private void transform(Element[] a, int length) {
+        // Bit-reversal permutation.
+        for (int i = 1, j = 0; i < length; i++) {
+            int bit = length >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                Element tmp = a[i];
+                a[i] = a[j];
+                a[j] = tmp;
+            }
+        }
+
+        Element scratch = zr.newElement();
+        for (int block = 2; block <= length; block <<= 1) {
+            int half = block >> 1;
+            int stride = size / block;
+            for (int start = 0; start < length; start += block) {
+                for (int j = 0; j < half; j++) {
+                    // (u, v) -> (u + w * v, u - w * v)
+                    Element u = a[start + j];
+                    Element v = a[start + j + half].mul(powers[j * stride]);
+                    scratch.set(u);
+                    u.add(v);
+                    v.negate().add(scratch);
+                }
+            }
+        }
+    }
+}
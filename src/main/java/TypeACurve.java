@@ -0,0 +1,335 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.field.curve.CurveElement;
+import it.unisa.dia.gas.plaf.jpbc.field.curve.CurveField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dedicated arithmetic for the G1 group of a Type A pairing, the curve y^2 = x^3 + x over F_q.
+ * <p>
+ * JPBC keeps curve points in affine coordinates on BigInteger field elements, so every point addition and
+ * doubling pays for a modular inversion. Here points are held in Jacobian coordinates (X : Y : Z), standing
+ * for the affine point (X / Z^2, Y / Z^3), on the eight-limb Montgomery arithmetic of {@link MontgomeryFq}.
+ * Doubling then costs 9 and addition 16 field multiplications without any inversion, and a single inversion
+ * is paid when a result is converted back into a JPBC element. The point at infinity has Z = 0.
+ * <p>
+ * Points with Z = 1 are added with the cheaper mixed formula (11 multiplications), so precomputed tables
+ * are normalized once with {@link #normalize(List)}, and whole batches of results are converted with
+ * {@link #toElements(List)}; both share one field inversion among all points via Montgomery's trick.
+ * <p>
+ * Group operations are written multiplicatively, as in JPBC: mul is point addition and square is doubling.
+ * <p>
+ * Reference:
+ * Cohen, Henri, Atsuko Miyaji, and Takatoshi Ono. "Efficient elliptic curve exponentiation using mixed
+ * coordinates." International Conference on the Theory and Application of Cryptology and Information
+ * Security. Berlin, Heidelberg: Springer Berlin Heidelberg, 1998.
+ */
+final class TypeACurve implements GroupArithmetic<TypeACurve.Jacobian> {
+
+    /**
+     * A mutable point in Jacobian coordinates, each coordinate in Montgomery form.
+     */
+    static final class Jacobian {
+        final long[] x = new long[MontgomeryFq.LIMBS];
+        final long[] y = new long[MontgomeryFq.LIMBS];
+        final long[] z = new long[MontgomeryFq.LIMBS];
+    }
+
+    /**
+     * The group G1.
+     * Arithmetic in the base field F_q.
+     * Byte length of one affine coordinate in JPBC's encoding of a point.
+     * One in Montgomery form, the Z coordinate of normalized points.
+     */
+    private final CurveField<?> group;
+    private final MontgomeryFq fq;
+    private final int coordinateBytes;
+    private final long[] one;
+
+    private TypeACurve(CurveField<?> group) {
+        this.group = group;
+        this.fq = new MontgomeryFq(group.getTargetField().getOrder());
+        this.coordinateBytes = group.getTargetField().getLengthInBytes();
+        this.one = fq.newOne();
+    }
+
+    /**
+     * Returns the dedicated arithmetic for the given group if it is the curve y^2 = x^3 + x over a prime
+     * field of at most 512 bits.
+     *
+     * @param field The group.
+     * @return The arithmetic, or null if the group is not such a curve.
+     */
+    static TypeACurve forField(Field<?> field) {
+        if (!(field instanceof CurveField<?> curve) || !curve.getA().isOne() || !curve.getB().isZero()) {
+            return null;
+        }
+        try {
+            return new TypeACurve(curve);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Jacobian fromElement(Element element) {
+        Jacobian point = new Jacobian();
+        if (element.isZero()) {
+            return point;
+        }
+        CurveElement<?, ?> affine = (CurveElement<?, ?>) element;
+        System.arraycopy(fq.fromBigInteger(affine.getX().toBigInteger()), 0, point.x, 0, MontgomeryFq.LIMBS);
+        System.arraycopy(fq.fromBigInteger(affine.getY().toBigInteger()), 0, point.y, 0, MontgomeryFq.LIMBS);
+        System.arraycopy(fq.newOne(), 0, point.z, 0, MontgomeryFq.LIMBS);
+        return point;
+    }
+
+    @Override
+    public Element toElement(Jacobian value) {
+        if (!fq.isZero(value.z) && !fq.isEqual(value.z, one)) {
+            value = copy(value);
+            normalize(List.of(value));
+        }
+        return toElementNormalized(value);
+    }
+
+    /**
+     * Normalizes all points with one shared inversion, then converts them without further inversions.
+     */
+    @Override
+    public List<Element> toElements(List<Jacobian> values) {
+        normalize(values);
+        List<Element> elements = new ArrayList<>(values.size());
+        for (Jacobian value : values) {
+            elements.add(toElementNormalized(value));
+        }
+        return elements;
+    }
+
+    /**
+     * Rewrites every finite point as (X / Z^2 : Y / Z^3 : 1). The k inverses 1 / Z are computed together
+     * with Montgomery's trick, at the cost of one inversion and about 3 k multiplications.
+     */
+    @Override
+    public void normalize(List<Jacobian> values) {
+        List<Jacobian> pending = new ArrayList<>();
+        for (Jacobian value : values) {
+            if (!fq.isZero(value.z) && !fq.isEqual(value.z, one)) {
+                pending.add(value);
+            }
+        }
+        long[][] inverses = new long[pending.size()][];
+        for (int i = 0; i < inverses.length; i++) {
+            inverses[i] = pending.get(i).z.clone();
+        }
+        fq.batchInvert(inverses);
+
+        long[] inverseSquared = fq.newZero();
+        for (int i = 0; i < inverses.length; i++) {
+            Jacobian value = pending.get(i);
+            fq.square(inverses[i], inverseSquared);
+            fq.mul(value.x, inverseSquared, value.x);
+            fq.mul(value.y, inverseSquared, value.y);
+            fq.mul(value.y, inverses[i], value.y);
+            System.arraycopy(one, 0, value.z, 0, MontgomeryFq.LIMBS);
+        }
+    }
+
+    /**
+     * Encodes a point with Z = 0 or Z = 1 as a JPBC element.
+     */
+    private Element toElementNormalized(Jacobian value) {
+        Element element = group.newElement();
+        if (fq.isZero(value.z)) {
+            return element.setToOne();
+        }
+        byte[] bytes = new byte[2 * coordinateBytes];
+        fq.toBytes(value.x, bytes, 0, coordinateBytes);
+        fq.toBytes(value.y, bytes, coordinateBytes, coordinateBytes);
+        element.setFromBytes(bytes);
+        return element;
+    }
+
+    @Override
+    public Jacobian identity() {
+        return new Jacobian();
+    }
+
+    @Override
+    public Jacobian copy(Jacobian value) {
+        Jacobian copy = new Jacobian();
+        set(copy, value);
+        return copy;
+    }
+
+    /**
+     * Point addition, add-1998-cmo-2:
+     * <p>
+     * U1 = X1 Z2^2, U2 = X2 Z1^2, S1 = Y1 Z2^3, S2 = Y2 Z1^3, H = U2 - U1, R = S2 - S1,
+     * <p>
+     * X3 = R^2 - H^3 - 2 U1 H^2, Y3 = R (U1 H^2 - X3) - S1 H^3, Z3 = Z1 Z2 H.
+     * <p>
+     * If the operand is normalized (Z2 = 1), U1 = X1 and S1 = Y1, which saves five multiplications.
+     */
+    @Override
+    public void mul(Jacobian accumulator, Jacobian operand) {
+        if (fq.isZero(operand.z)) {
+            return;
+        }
+        if (fq.isZero(accumulator.z)) {
+            set(accumulator, operand);
+            return;
+        }
+        if (accumulator == operand) {
+            square(accumulator);
+            return;
+        }
+        boolean mixed = fq.isEqual(operand.z, one);
+        long[] z1z1 = fq.newZero();
+        long[] z2z2 = fq.newZero();
+        long[] u1 = fq.newZero();
+        long[] u2 = fq.newZero();
+        long[] s1 = fq.newZero();
+        long[] s2 = fq.newZero();
+        fq.square(accumulator.z, z1z1);
+        if (mixed) {
+            System.arraycopy(accumulator.x, 0, u1, 0, MontgomeryFq.LIMBS);
+            System.arraycopy(accumulator.y, 0, s1, 0, MontgomeryFq.LIMBS);
+        } else {
+            fq.square(operand.z, z2z2);
+            fq.mul(accumulator.x, z2z2, u1);
+            fq.mul(accumulator.y, operand.z, s1);
+            fq.mul(s1, z2z2, s1);
+        }
+        fq.mul(operand.x, z1z1, u2);
+        fq.mul(operand.y, accumulator.z, s2);
+        fq.mul(s2, z1z1, s2);
+
+        long[] h = u2;
+        long[] r = s2;
+        fq.sub(u2, u1, h);
+        fq.sub(s2, s1, r);
+        if (fq.isZero(h)) {
+            // Equal x: either the same point, or inverse points summing to infinity.
+            if (fq.isZero(r)) {
+                square(accumulator);
+            } else {
+                setToInfinity(accumulator);
+            }
+            return;
+        }
+
+        long[] hh = z1z1;
+        long[] hhh = z2z2;
+        if (!mixed) {
+            fq.mul(accumulator.z, operand.z, accumulator.z);
+        }
+        fq.mul(accumulator.z, h, accumulator.z);
+        fq.square(h, hh);
+        fq.mul(h, hh, hhh);
+        long[] v = u1;
+        fq.mul(u1, hh, v);
+
+        fq.square(r, accumulator.x);
+        fq.sub(accumulator.x, hhh, accumulator.x);
+        fq.sub(accumulator.x, v, accumulator.x);
+        fq.sub(accumulator.x, v, accumulator.x);
+
+        fq.sub(v, accumulator.x, v);
+        fq.mul(r, v, accumulator.y);
+        fq.mul(s1, hhh, s1);
+        fq.sub(accumulator.y, s1, accumulator.y);
+    }
+
+    /**
+     * Point doubling for a = 1, dbl-1998-cmo-2:
+     * <p>
+     * S = 4 X Y^2, M = 3 X^2 + Z^4, X3 = M^2 - 2 S, Y3 = M (S - X3) - 8 Y^4, Z3 = 2 Y Z.
+     */
+    @Override
+    public void square(Jacobian accumulator) {
+        if (fq.isZero(accumulator.z)) {
+            return;
+        }
+        long[] yy = fq.newZero();
+        long[] s = fq.newZero();
+        long[] m = fq.newZero();
+        long[] scratch = fq.newZero();
+        fq.square(accumulator.y, yy);
+        fq.mul(accumulator.x, yy, s);
+        fq.add(s, s, s);
+        fq.add(s, s, s);
+
+        fq.square(accumulator.x, m);
+        fq.add(m, m, scratch);
+        fq.add(m, scratch, m);
+        fq.square(accumulator.z, scratch);
+        fq.square(scratch, scratch);
+        fq.add(m, scratch, m);
+
+        // Z3 before Y is overwritten; a point of order two has Y = 0 and doubles to infinity.
+        fq.mul(accumulator.y, accumulator.z, accumulator.z);
+        fq.add(accumulator.z, accumulator.z, accumulator.z);
+
+        fq.square(m, accumulator.x);
+        fq.sub(accumulator.x, s, accumulator.x);
+        fq.sub(accumulator.x, s, accumulator.x);
+
+        fq.sub(s, accumulator.x, s);
+        fq.mul(m, s, accumulator.y);
+        fq.square(yy, yy);
+        fq.add(yy, yy, yy);
+        fq.add(yy, yy, yy);
+        fq.add(yy, yy, yy);
+        fq.sub(accumulator.y, yy, accumulator.y);
+    }
+
+    /**
+     * Point negation, (X : Y : Z) -> (X : -Y : Z).
+     */
+    @Override
+    public void invert(Jacobian accumulator) {
+        fq.negate(accumulator.y, accumulator.y);
+    }
+
+    /**
+     * Compares X1 Z2^2 with X2 Z1^2 and Y1 Z2^3 with Y2 Z1^3, without normalizing either point.
+     */
+    @Override
+    public boolean isEqual(Jacobian a, Jacobian b) {
+        boolean aInfinity = fq.isZero(a.z);
+        boolean bInfinity = fq.isZero(b.z);
+        if (aInfinity || bInfinity) {
+            return aInfinity == bInfinity;
+        }
+        long[] azz = fq.newZero();
+        long[] bzz = fq.newZero();
+        long[] left = fq.newZero();
+        long[] right = fq.newZero();
+        fq.square(a.z, azz);
+        fq.square(b.z, bzz);
+        fq.mul(a.x, bzz, left);
+        fq.mul(b.x, azz, right);
+        if (!fq.isEqual(left, right)) {
+            return false;
+        }
+        fq.mul(bzz, b.z, bzz);
+        fq.mul(azz, a.z, azz);
+        fq.mul(a.y, bzz, left);
+        fq.mul(b.y, azz, right);
+        return fq.isEqual(left, right);
+    }
+
+    private static void set(Jacobian target, Jacobian source) {
+        System.arraycopy(source.x, 0, target.x, 0, MontgomeryFq.LIMBS);
+        System.arraycopy(source.y, 0, target.y, 0, MontgomeryFq.LIMBS);
+        System.arraycopy(source.z, 0, target.z, 0, MontgomeryFq.LIMBS);
+    }
+
+    private static void setToInfinity(Jacobian target) {
+        Arrays.fill(target.z, 0);
+    }
+}
@@ -0,0 +1,176 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Width-w non-adjacent form (wNAF) recoding and variable-base exponentiation.
+ * <p>
+ * In wNAF every non-zero digit is odd and lies in (-2^(w-1), 2^(w-1)), and any w consecutive digits contain
+ * at most one non-zero digit, so an exponent of b bits needs about b / (w + 1) multiplications besides its
+ * b squarings. Negative digits use the inverse of the table entry, which is a free negation on curves, so
+ * only the 2^(w-2) odd powers B, B^3, ..., B^(2^(w-1) - 1) are precomputed. The width is picked from the
+ * bit length of the exponent to balance the table against the multiplications it saves.
+ * <p>
+ * Reference:
+ * Solinas, Jerome A. "Efficient arithmetic on Koblitz curves." Designs, Codes and Cryptography 19.2-3
+ * (2000): 195-249.
+ */
+final class WindowedNaf {
+
+    /**
+     * Largest window width considered.
+     */
+    private static final int MAX_WIDTH = 8;
+
+    /**
+     * A single exponentiation normalizes its table only when it expects at least this many multiplications,
+     * enough to repay the field inversion through cheaper mixed additions.
+     */
+    private static final int NORMALIZE_MIN_MULTIPLICATIONS = 16;
+
+    private WindowedNaf() {
+    }
+
+    /**
+     * Picks the window width minimizing the table cost plus the expected multiplications for an exponent of
+     * the given bit length. The table B, B^3, ..., B^(2^(w-1) - 1) costs one squaring and 2^(w-2) - 1
+     * multiplications for w > 2, and nothing for w = 2. Squarings are not counted, as their number does not
+     * depend on w.
+     *
+     * @param bits The bit length of the exponent.
+     * @return The window width, between 2 and {@code MAX_WIDTH}.
+     */
+    static int width(int bits) {
+        int best = 2;
+        double bestCost = Double.MAX_VALUE;
+        for (int w = 2; w <= MAX_WIDTH; w++) {
+            double cost = (w == 2 ? 0 : 1 << (w - 2)) + (double) bits / (w + 1);
+            if (cost < bestCost) {
+                best = w;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Recodes a non-negative exponent into width-w NAF digits.
+     *
+     * @param exponent The non-negative exponent.
+     * @param width    The window width, at least 2.
+     * @return The digits, least significant first, at most one longer than the exponent's bit length.
+     * @throws IllegalArgumentException if the exponent is negative.
+     */
+    static int[] digits(BigInteger exponent, int width) {
+        if (exponent.signum() < 0) {
+            throw new IllegalArgumentException("Exponent must be non-negative.");
+        }
+        int bits = exponent.bitLength();
+        int[] digits = new int[bits + 1];
+        int modulus = 1 << width;
+        int carry = 0;
+        int position = 0;
+        while (position < bits || carry != 0) {
+            int value = (exponent.testBit(position) ? 1 : 0) + carry;
+            if ((value & 1) == 0) {
+                // Even: digit 0, and a carry into a set bit propagates.
+                carry = value >> 1;
+                position++;
+                continue;
+            }
+            // Odd: take the w-bit window plus the carry, and choose its signed residue mod 2^w.
+            int window = carry;
+            for (int b = 0; b < width; b++) {
+                if (exponent.testBit(position + b)) {
+                    window += 1 << b;
+                }
+            }
+            int digit = window >= modulus / 2 ? window - modulus : window;
+            digits[position] = digit;
+            carry = digit < 0 ? 1 : 0;
+            position += width;
+        }
+        return digits;
+    }
+
+    /**
+     * Precomputes the odd powers B, B^3, ..., B^(2^(w-1) - 1) of a base.
+     *
+     * @param group The arithmetic of the group.
+     * @param base  The base. Not modified.
+     * @param width The window width, at least 2.
+     * @return The 2^(w-2) odd powers, in increasing order.
+     */
+    static <P> List<P> oddPowers(GroupArithmetic<P> group, P base, int width) {
+        int size = 1 << (width - 2);
+        List<P> powers = new ArrayList<>(size);
+        powers.add(group.copy(base));
+        if (size > 1) {
+            P square = group.copy(base);
+            group.square(square);
+            for (int i = 1; i < size; i++) {
+                P power = group.copy(powers.get(i - 1));
+                group.mul(power, square);
+                powers.add(power);
+            }
+        }
+        return powers;
+    }
+
+    /**
+     * Returns the inverses of the given values, in the same order.
+     */
+    static <P> List<P> inverses(GroupArithmetic<P> group, List<P> values) {
+        List<P> inverses = new ArrayList<>(values.size());
+        for (P value : values) {
+            P inverse = group.copy(value);
+            group.invert(inverse);
+            inverses.add(inverse);
+        }
+        return inverses;
+    }
+
+    /**
+     * Computes base^exponent with a window width picked from the exponent's bit length.
+     *
+     * @param group    The arithmetic of the group.
+     * @param base     The base. Not modified.
+     * @param exponent The non-negative exponent.
+     * @return A new value holding base^exponent.
+     * @throws IllegalArgumentException if the exponent is negative.
+     */
+    static <P> P pow(GroupArithmetic<P> group, P base, BigInteger exponent) {
+        if (exponent.signum() < 0) {
+            throw new IllegalArgumentException("Exponent must be non-negative.");
+        }
+        int bits = exponent.bitLength();
+        if (bits == 0) {
+            return group.identity();
+        }
+        int width = width(bits);
+        int[] digits = digits(exponent, width);
+        List<P> powers = oddPowers(group, base, width);
+        List<P> inverses = inverses(group, powers);
+        if (bits / (width + 1) >= NORMALIZE_MIN_MULTIPLICATIONS) {
+            List<P> table = new ArrayList<>(powers);
+            table.addAll(inverses);
+            group.normalize(table);
+        }
+
+        int top = digits.length - 1;
+        while (digits[top] == 0) {
+            top--;
+        }
+        P result = group.copy(digits[top] > 0 ? powers.get(digits[top] >> 1) : inverses.get(-digits[top] >> 1));
+        for (int i = top - 1; i >= 0; i--) {
+            group.square(result);
+            int digit = digits[i];
+            if (digit > 0) {
+                group.mul(result, powers.get(digit >> 1));
+            } else if (digit < 0) {
+                group.mul(result, inverses.get(-digit >> 1));
+            }
+        }
+        return result;
+    }
+}
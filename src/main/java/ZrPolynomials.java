@@ -0,0 +1,392 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense polynomial arithmetic over Zr with fast multiplication and division.
+ * <p>
+ * Polynomials are arrays of coefficients, lowest degree first. Multiplication is schoolbook for short
+ * operands, Karatsuba for medium ones, and NTT-based over a power-of-two roots-of-unity domain for long
+ * ones when Zr has such roots. Division by a monic polynomial uses Newton iteration on the reversed
+ * divisor, so it costs a constant number of multiplications.
+ * <p>
+ * Reference:
+ * von zur Gathen, Joachim, and Jürgen Gerhard. "Modern Computer Algebra."
+ * Cambridge University Press, 2013. Chapters 8-10.
+ */
+final class ZrPolynomials {
+
+    /**
+     * Operand lengths below which schoolbook multiplication is used.
+     * Operand lengths from which NTT-based multiplication is used, when available.
+     * Quotient lengths below which schoolbook division is used.
+     */
+    private static final int KARATSUBA_THRESHOLD = 24;
+    private static final int NTT_THRESHOLD = 48;
+    private static final int NEWTON_DIVISION_THRESHOLD = 48;
+
+    /**
+     * The field Zr.
+     * Largest k such that 2^k divides r - 1.
+     * Roots-of-unity domains created so far, keyed by size.
+     */
+    private final Field<Element> zr;
+    private final int twoAdicity;
+    private final Map<Integer, RootsOfUnityDomain> domains = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the polynomial arithmetic over the given field.
+     *
+     * @param zr The field Zr.
+     */
+    ZrPolynomials(Field<Element> zr) {
+        this.zr = zr;
+        this.twoAdicity = zr.getOrder().subtract(BigInteger.ONE).getLowestSetBit();
+    }
+
+    /**
+     * Multiplies two polynomials.
+     *
+     * @param a The first polynomial.
+     * @param b The second polynomial.
+     * @return The product, with a.length + b.length - 1 coefficients.
+     */
+    Element[] multiply(Element[] a, Element[] b) {
+        int shorter = Math.min(a.length, b.length);
+        if (shorter < KARATSUBA_THRESHOLD) {
+            return multiplySchoolbook(a, b);
+        }
+        int productLength = a.length + b.length - 1;
+        int size = Integer.highestOneBit(productLength - 1) << 1;
+        if (shorter >= NTT_THRESHOLD && Integer.numberOfTrailingZeros(size) <= twoAdicity) {
+            return domain(size).multiply(a, b);
+        }
+        return multiplyKaratsuba(a, b);
+    }
+
+    /**
+     * Computes a mod b for a monic divisor b.
+     *
+     * @param a The dividend.
+     * @param b The monic divisor, of degree at least one.
+     * @return The remainder, with b.length - 1 coefficients.
+     */
+    Element[] remainder(Element[] a, Element[] b) {
+        int divisorDegree = b.length - 1;
+        if (a.length <= divisorDegree) {
+            Element[] result = zeros(divisorDegree);
+            for (int i = 0; i < a.length; i++) {
+                result[i].set(a[i]);
+            }
+            return result;
+        }
+        int quotientLength = a.length - divisorDegree;
+        if (quotientLength < NEWTON_DIVISION_THRESHOLD) {
+            return remainderSchoolbook(a, b);
+        }
+
+        return remainderNewton(a, b, inverseSeries(reverse(b, b.length), quotientLength));
+    }
+
+    /**
+     * Computes a mod b by Newton division, given the power series inverse of the reversed divisor to at least
+     * deg a - deg b + 1 terms.
+     */
+    private Element[] remainderNewton(Element[] a, Element[] b, Element[] reversedInverse) {
+        int divisorDegree = b.length - 1;
+        int quotientLength = a.length - divisorDegree;
+
+        // rev(q) = rev(a) * rev(b)^-1 mod X^(deg a - deg b + 1).
+        Element[] reversedQuotient = truncate(
+                multiply(reverse(a, quotientLength), truncate(reversedInverse, quotientLength)), quotientLength);
+        Element[] quotient = reverse(reversedQuotient, quotientLength);
+
+        // r = a - b * q, of which only the low deg b coefficients are non-zero.
+        Element[] product = multiply(truncate(b, divisorDegree), truncate(quotient, divisorDegree));
+        Element[] result = new Element[divisorDegree];
+        for (int i = 0; i < divisorDegree; i++) {
+            result[i] = a[i].duplicate();
+            if (i < product.length) {
+                result[i].sub(product[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a polynomial at a single point using Horner's method.
+     *
+     * @param p The polynomial.
+     * @param x The point.
+     * @return A new element holding p(x).
+     */
+    Element evaluate(Element[] p, Element x) {
+        Element result = zr.newZeroElement();
+        for (int i = p.length - 1; i >= 0; i--) {
+            result.mul(x).add(p[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Subproduct tree over a set of points, used to evaluate polynomials at all of them at once.
+     * <p>
+     * Each node holds the monic polynomial Π (X - x_i) over the points below it. A polynomial is evaluated by
+     * reducing it modulo the root and then, level by level, modulo each child, until the leaves X - x_i hold
+     * p(x_i). With fast multiplication and division this takes O(n log^2 n) field operations.
+     */
+    final class SubproductTree {
+
+        /**
+         * The points, in order.
+         * The root of the tree.
+         */
+        private final Element[] points;
+        private final Node root;
+
+        /**
+         * Builds the subproduct tree over the given points.
+         *
+         * @param points The points. Must be non-empty.
+         */
+        SubproductTree(BigInteger[] points) {
+            this.points = new Element[points.length];
+            for (int i = 0; i < points.length; i++) {
+                this.points[i] = zr.newElement(points[i]).getImmutable();
+            }
+            this.root = build(0, points.length);
+        }
+
+        /**
+         * Returns the polynomial at the root, Π (X - x_i) over all points.
+         *
+         * @return The monic product polynomial. Must not be modified.
+         */
+        Element[] product() {
+            return root.polynomial;
+        }
+
+        /**
+         * Evaluates a polynomial at every point of the tree.
+         *
+         * @param p The polynomial.
+         * @return The values p(x_0), ..., p(x_{n-1}).
+         */
+        Element[] evaluate(Element[] p) {
+            Element[] values = new Element[points.length];
+            descend(root, p, values);
+            return values;
+        }
+
+        private Node build(int from, int to) {
+            if (to - from == 1) {
+                Element[] linear = {points[from].duplicate().negate(), zr.newOneElement()};
+                return new Node(linear, null, null, from);
+            }
+            int middle = (from + to) >>> 1;
+            Node left = build(from, middle);
+            Node right = build(middle, to);
+            return new Node(multiply(left.polynomial, right.polynomial), left, right, -1);
+        }
+
+        private void descend(Node node, Element[] p, Element[] values) {
+            Element[] reduced = p.length >= node.polynomial.length ? reduce(p, node) : p;
+            if (node.left == null) {
+                values[node.leaf] = ZrPolynomials.this.evaluate(reduced, points[node.leaf]);
+                return;
+            }
+            descend(node.left, reduced, values);
+            descend(node.right, reduced, values);
+        }
+
+        /**
+         * Reduces p modulo the node's polynomial, caching the inverse of the reversed polynomial in the node so
+         * that evaluating further polynomials over the same tree does not recompute it.
+         * <p>
+         * Trees are shared between threads, so the cached inverse is read once into a local, and only extended
+         * under the node's lock after checking again that no other thread extended it first.
+         */
+        private Element[] reduce(Element[] p, Node node) {
+            int quotientLength = p.length - (node.polynomial.length - 1);
+            if (quotientLength < NEWTON_DIVISION_THRESHOLD) {
+                return remainderSchoolbook(p, node.polynomial);
+            }
+            Element[] reversedInverse = node.reversedInverse;
+            if (reversedInverse == null || reversedInverse.length < quotientLength) {
+                synchronized (node) {
+                    reversedInverse = node.reversedInverse;
+                    if (reversedInverse == null || reversedInverse.length < quotientLength) {
+                        reversedInverse = inverseSeries(reverse(node.polynomial, node.polynomial.length),
+                                quotientLength);
+                        node.reversedInverse = reversedInverse;
+                    }
+                }
+            }
+            return remainderNewton(p, node.polynomial, reversedInverse);
+        }
+    }
+
+    /**
+     * A node of the subproduct tree: its polynomial, its children, for leaves the point index, and the cached
+     * power series inverse of the reversed polynomial.
+     */
+    private static final class Node {
+        private final Element[] polynomial;
+        private final Node left;
+        private final Node right;
+        private final int leaf;
+        private volatile Element[] reversedInverse;
+
+        private Node(Element[] polynomial, Node left, Node right, int leaf) {
+            this.polynomial = polynomial;
+            this.left = left;
+            this.right = right;
+            this.leaf = leaf;
+        }
+    }
+
+    private Element[] multiplySchoolbook(Element[] a, Element[] b) {
+        Element[] product = zeros(a.length + b.length - 1);
+        Element scratch = zr.newElement();
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                product[i + j].add(scratch.set(a[i]).mul(b[j]));
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Karatsuba multiplication: with a = a0 + X^m a1 and b = b0 + X^m b1,
+     * a * b = a0 b0 + X^m ((a0 + a1)(b0 + b1) - a0 b0 - a1 b1) + X^2m a1 b1.
+     */
+    private Element[] multiplyKaratsuba(Element[] a, Element[] b) {
+        int m = Math.max(a.length, b.length) / 2;
+        if (a.length <= m || b.length <= m) {
+            // Too unbalanced to split both operands; multiply the long one in slices.
+            Element[] shortOperand = a.length <= m ? a : b;
+            Element[] longOperand = a.length <= m ? b : a;
+            Element[] product = zeros(a.length + b.length - 1);
+            for (int offset = 0; offset < longOperand.length; offset += shortOperand.length) {
+                Element[] slice = slice(longOperand, offset, Math.min(longOperand.length, offset + shortOperand.length));
+                addInto(product, multiply(slice, shortOperand), offset);
+            }
+            return product;
+        }
+        Element[] a0 = slice(a, 0, m);
+        Element[] a1 = slice(a, m, a.length);
+        Element[] b0 = slice(b, 0, m);
+        Element[] b1 = slice(b, m, b.length);
+
+        Element[] low = multiply(a0, b0);
+        Element[] high = multiply(a1, b1);
+        Element[] middle = multiply(sum(a0, a1), sum(b0, b1));
+        subtractInto(middle, low);
+        subtractInto(middle, high);
+
+        Element[] product = zeros(a.length + b.length - 1);
+        addInto(product, low, 0);
+        addInto(product, middle, m);
+        addInto(product, high, 2 * m);
+        return product;
+    }
+
+    private Element[] remainderSchoolbook(Element[] a, Element[] b) {
+        Element[] work = new Element[a.length];
+        for (int i = 0; i < a.length; i++) {
+            work[i] = a[i].duplicate();
+        }
+        int divisorDegree = b.length - 1;
+        Element scratch = zr.newElement();
+        for (int i = a.length - 1; i >= divisorDegree; i--) {
+            // Leading coefficient of the running remainder is the next quotient coefficient (b is monic).
+            Element factor = work[i];
+            for (int j = 0; j < divisorDegree; j++) {
+                work[i - divisorDegree + j].sub(scratch.set(b[j]).mul(factor));
+            }
+        }
+        return slice(work, 0, divisorDegree);
+    }
+
+    /**
+     * Computes the power series inverse of f mod X^length, for f with constant term one,
+     * by the Newton iteration g <- g (2 - f g), which doubles the precision at each step.
+     */
+    private Element[] inverseSeries(Element[] f, int length) {
+        Element[] g = {zr.newOneElement()};
+        int precision = 1;
+        while (precision < length) {
+            precision = Math.min(2 * precision, length);
+            Element[] fg = truncate(multiply(truncate(f, precision), g), precision);
+            for (Element coefficient : fg) {
+                coefficient.negate();
+            }
+            fg[0].add(zr.newElement(2));
+            g = truncate(multiply(g, fg), precision);
+        }
+        return g;
+    }
+
+    private RootsOfUnityDomain domain(int size) {
+        return domains.computeIfAbsent(size, s -> new RootsOfUnityDomain(zr, s));
+    }
+
+    private Element[] zeros(int length) {
+        Element[] result = new Element[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = zr.newZeroElement();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first length coefficients of p in reverse order, padding with zeros.
+     */
+    private Element[] reverse(Element[] p, int length) {
+        Element[] result = new Element[length];
+        for (int i = 0; i < length; i++) {
+            int source = p.length - 1 - i;
+            result[i] = source >= 0 ? p[source].duplicate() : zr.newZeroElement();
+        }
+        return result;
+    }
+
+    /**
+     * Returns p mod X^length, padding with zeros.
+     */
+    private Element[] truncate(Element[] p, int length) {
+        Element[] result = new Element[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i < p.length ? p[i] : zr.newZeroElement();
+        }
+        return result;
+    }
+
+    private static Element[] slice(Element[] p, int from, int to) {
+        Element[] result = new Element[to - from];
+        System.arraycopy(p, from, result, 0, result.length);
+        return result;
+    }
+
+    private Element[] sum(Element[] a, Element[] b) {
+        Element[] result = zeros(Math.max(a.length, b.length));
+        addInto(result, a, 0);
+        addInto(result, b, 0);
+        return result;
+    }
+
+    private static void addInto(Element[] target, Element[] p, int offset) {
+        for (int i = 0; i < p.length; i++) {
+            target[offset + i].add(p[i]);
+        }
+    }
+
+    private static void subtractInto(Element[] target, Element[] p) {
+        for (int i = 0; i < p.length; i++) {
+            target[i].sub(p[i]);
+        }
+    }
+}
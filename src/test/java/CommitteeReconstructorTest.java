@@ -0,0 +1,69 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the committee tables, both through the present and through the missing participants, against
+ * plain Lagrange interpolation.
+ */
+class CommitteeReconstructorTest {
+
+    private static final int SIZE = 64;
+
+    private final Field<Element> Zr = PairingFactory.getPairing("a.properties").getZr();
+    private final MontgomeryZr field = new MontgomeryZr(Zr);
+    private final CommitteeReconstructor committee = new CommitteeReconstructor(field, SIZE);
+    private final Random random = new Random(1);
+
+    /**
+     * Returns k distinct participants of the committee, in random order.
+     */
+    private int[] quorum(int k) {
+        List<Integer> participants = new ArrayList<>();
+        for (int i = 1; i <= SIZE; i++) {
+            participants.add(i);
+        }
+        Collections.shuffle(participants, random);
+        int[] indices = new int[k];
+        for (int i = 0; i < k; i++) {
+            indices[i] = participants.get(i);
+        }
+        return indices;
+    }
+
+    @Test
+    void matchesLagrangeCoefficientsOnBothBranches() {
+        // k > (n + 1) / 2 goes through the missing participants, smaller quorums through the present ones.
+        for (int k : new int[]{1, 2, 5, 31, 32, 33, 34, 60, 63, 64}) {
+            for (int round = 0; round < 4; round++) {
+                int[] indices = quorum(k);
+                BigInteger[] points = new BigInteger[k];
+                for (int i = 0; i < k; i++) {
+                    points[i] = BigInteger.valueOf(indices[i]);
+                }
+                Element[] expected = LagrangeCoefficients.atZero(field, points);
+                Element[] actual = committee.lagrangeAtZero(indices);
+                for (int i = 0; i < k; i++) {
+                    assertTrue(expected[i].isEqual(actual[i]), "k " + k + ", index " + indices[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsIndicesOutsideTheCommitteeAndRepeats() {
+        assertThrows(IllegalArgumentException.class, () -> committee.lagrangeAtZero(new int[]{0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> committee.lagrangeAtZero(new int[]{1, SIZE + 1}));
+        assertThrows(IllegalArgumentException.class, () -> committee.lagrangeAtZero(new int[]{3, 5, 3}));
+    }
+}
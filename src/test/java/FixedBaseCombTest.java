@@ -0,0 +1,56 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the fixed-base comb against plain JPBC exponentiation.
+ */
+class FixedBaseCombTest {
+
+    @Test
+    void powMatchesJpbc() {
+        Pairing pairing = PairingFactory.getPairing("a.properties");
+        Field<Element> G1 = pairing.getG1();
+        Field<Element> Zr = pairing.getZr();
+        BigInteger order = Zr.getOrder();
+        Element g = G1.newRandomElement().getImmutable();
+        Element h = G1.newRandomElement().getImmutable();
+        FixedBaseComb<?> comb = new FixedBaseComb<>(GroupArithmetic.of(G1), g, h, order.bitLength());
+
+        Random random = new Random(2);
+        List<BigInteger> exponents = new ArrayList<>(List.of(BigInteger.ZERO, BigInteger.ONE,
+                BigInteger.valueOf(1 << 24), order.subtract(BigInteger.TWO), order.subtract(BigInteger.ONE)));
+        for (int i = 0; i < 4; i++) {
+            exponents.add(new BigInteger(order.bitLength(), random).mod(order));
+        }
+
+        List<Element> a = new ArrayList<>();
+        List<Element> b = new ArrayList<>();
+        List<Element> expected = new ArrayList<>();
+        for (BigInteger x : exponents) {
+            for (BigInteger y : exponents) {
+                Element plain = g.pow(x).mul(h.pow(y));
+                assertTrue(plain.isEqual(comb.pow(x, y)), x + ", " + y);
+                a.add(Zr.newElement(x));
+                b.add(Zr.newElement(y));
+                expected.add(plain);
+            }
+        }
+
+        List<Element> all = comb.powAll(a, b);
+        assertEquals(expected.size(), all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(expected.get(i).isEqual(all.get(i)), "pair " + i);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the bisection verifier with a combined check that fails on marked indices.
+ */
+class GroupTestingVerifierTest {
+
+    /**
+     * Returns n shares carrying only their index, 1 to n.
+     */
+    private static List<PedersenVSS.Share> shares(int n) {
+        List<PedersenVSS.Share> shares = new ArrayList<>();
+        for (int index = 1; index <= n; index++) {
+            shares.add(new PedersenVSS.Share(index, null, null, null));
+        }
+        return shares;
+    }
+
+    @Test
+    void findsTheInvalidPositionsWithFewChecks() {
+        List<PedersenVSS.Share> shares = shares(64);
+        for (Set<Integer> invalid : List.of(Set.<Integer>of(), Set.of(1), Set.of(64), Set.of(5, 6, 40),
+                Set.of(2, 17, 33, 50, 63))) {
+            int[] checks = {0};
+            GroupTestingVerifier verifier = new GroupTestingVerifier(batch -> {
+                checks[0]++;
+                return batch.stream().noneMatch(share -> invalid.contains(share.index()));
+            });
+            List<Integer> expected = invalid.stream().sorted().map(index -> index - 1).toList();
+            assertEquals(expected, verifier.findInvalid(shares));
+            // One check of the whole batch plus at most two per level for each invalid share.
+            assertTrue(checks[0] <= 1 + 2 * invalid.size() * 6, invalid + ": " + checks[0] + " checks");
+        }
+    }
+
+    @Test
+    void reportsEveryPositionOfAnAllInvalidBatch() {
+        GroupTestingVerifier verifier = new GroupTestingVerifier(batch -> false);
+        assertEquals(List.of(0, 1, 2, 3, 4), verifier.findInvalid(shares(5)));
+        assertEquals(List.of(), verifier.findInvalid(List.of()));
+    }
+}
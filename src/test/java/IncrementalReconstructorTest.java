@@ -0,0 +1,90 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the incremental reconstructor, including concurrent arrivals.
+ */
+class IncrementalReconstructorTest {
+
+    private final Pairing pairing = PairingFactory.getPairing("a.properties");
+    private final PedersenVSS vss = new PedersenVSS(pairing, pairing.getG1().newRandomElement().getImmutable(),
+            pairing.getG1().newRandomElement().getImmutable());
+
+    private Element newSecret() {
+        Field<Element> Zr = pairing.getZr();
+        Element secret;
+        do {
+            secret = Zr.newRandomElement();
+        } while (secret.isZero());
+        return secret;
+    }
+
+    @Test
+    void reconstructsFromTheFirstTValidShares() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 6);
+        IncrementalReconstructor reconstructor = vss.incrementalReconstructor(3, true);
+
+        PedersenVSS.Share first = shares.get(4);
+        Element wrong = first.value1().duplicate().add(pairing.getZr().newOneElement());
+        assertFalse(reconstructor.add(new PedersenVSS.Share(first.index(), wrong, first.value2(), first.commitment())));
+        assertTrue(reconstructor.add(first));
+        assertThrows(IllegalArgumentException.class, () -> reconstructor.add(first));
+        assertThrows(IllegalStateException.class, reconstructor::secret);
+        assertTrue(reconstructor.add(shares.get(0)));
+        assertTrue(reconstructor.add(shares.get(2)));
+        assertTrue(reconstructor.isComplete());
+        assertFalse(reconstructor.add(shares.get(5)));
+        assertEquals(3, reconstructor.size());
+        assertTrue(secret.isEqual(reconstructor.secret()));
+    }
+
+    @Test
+    void validatesConcurrentArrivalsOutsideTheLock() throws Exception {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 4, 8);
+
+        // Each validation waits for a second one to start, which only happens if validators run concurrently.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        IncrementalReconstructor reconstructor = new IncrementalReconstructor(new MontgomeryZr(pairing.getZr()), 4,
+                BigInteger::valueOf, share -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (PedersenVSS.Share share : shares.subList(0, 4)) {
+                results.add(executor.submit(() -> reconstructor.add(share)));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(secret.isEqual(reconstructor.secret()));
+    }
+}
@@ -0,0 +1,78 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the hit and miss counters, LRU eviction and order mapping of the quorum cache.
+ */
+class LagrangeCacheTest {
+
+    private final Field<Element> Zr = PairingFactory.getPairing("a.properties").getZr();
+
+    /**
+     * Records the index sets it is asked for and returns each index as its own coefficient.
+     */
+    private final List<int[]> computed = new ArrayList<>();
+
+    private Element[] compute(int[] sorted) {
+        computed.add(sorted.clone());
+        Element[] coefficients = new Element[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            coefficients[i] = Zr.newElement(BigInteger.valueOf(sorted[i]));
+        }
+        return coefficients;
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        LagrangeCache cache = new LagrangeCache(4);
+        cache.get(new int[]{1, 2, 3}, this::compute);
+        cache.get(new int[]{1, 2, 3}, this::compute);
+        cache.get(new int[]{3, 1, 2}, this::compute);
+        cache.get(new int[]{1, 2, 4}, this::compute);
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, computed.size());
+    }
+
+    @Test
+    void mapsAPermutedQuorumBackToTheCallersOrder() {
+        LagrangeCache cache = new LagrangeCache(4);
+        cache.get(new int[]{2, 5, 9}, this::compute);
+        int[] permuted = {9, 2, 5};
+        Element[] coefficients = cache.get(permuted, this::compute);
+        assertEquals(1, cache.hits());
+        assertArrayEquals(new int[]{2, 5, 9}, computed.get(0));
+        for (int i = 0; i < permuted.length; i++) {
+            assertTrue(Zr.newElement(BigInteger.valueOf(permuted[i])).isEqual(coefficients[i]), "position " + i);
+            assertTrue(coefficients[i].isImmutable());
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedQuorum() {
+        LagrangeCache cache = new LagrangeCache(2);
+        cache.get(new int[]{1, 2}, this::compute);
+        cache.get(new int[]{1, 3}, this::compute);
+        // Touching {1, 2} makes {1, 3} the eldest, which the third quorum evicts.
+        cache.get(new int[]{2, 1}, this::compute);
+        cache.get(new int[]{1, 4}, this::compute);
+        assertEquals(3, cache.misses());
+
+        cache.get(new int[]{1, 2}, this::compute);
+        cache.get(new int[]{1, 4}, this::compute);
+        assertEquals(3, cache.misses());
+        cache.get(new int[]{1, 3}, this::compute);
+        assertEquals(4, cache.misses());
+        assertEquals(3, cache.hits());
+    }
+}
@@ -0,0 +1,120 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the Montgomery limb engines of Zr and Fq against BigInteger arithmetic and JPBC.
+ */
+class MontgomeryArithmeticTest {
+
+    private final Pairing pairing = PairingFactory.getPairing("a.properties");
+    private final Random random = new Random(4);
+
+    /**
+     * Returns small, limb-boundary, near-p and random values below p.
+     */
+    private List<BigInteger> values(BigInteger p) {
+        List<BigInteger> values = new ArrayList<>();
+        for (BigInteger value : new BigInteger[]{BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO,
+                BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE), BigInteger.ONE.shiftLeft(64),
+                BigInteger.ONE.shiftLeft(128), p.subtract(BigInteger.TWO), p.subtract(BigInteger.ONE)}) {
+            values.add(value.mod(p));
+        }
+        for (int i = 0; i < 6; i++) {
+            values.add(new BigInteger(p.bitLength(), random).mod(p));
+        }
+        return values;
+    }
+
+    private void checkAgainstBigInteger(MontgomeryArithmetic field) {
+        BigInteger p = field.order();
+        List<BigInteger> values = values(p);
+        for (BigInteger x : values) {
+            long[] a = field.fromBigInteger(x);
+            assertEquals(x, field.toBigInteger(a));
+            assertEquals(x.signum() == 0, field.isZero(a));
+            assertEquals(x.negate().mod(p), field.toBigInteger(field.fromBigInteger(x.negate())));
+
+            long[] out = field.newZero();
+            field.negate(a, out);
+            assertEquals(x.negate().mod(p), field.toBigInteger(out));
+            field.square(a, out);
+            assertEquals(x.multiply(x).mod(p), field.toBigInteger(out));
+            if (x.signum() != 0) {
+                field.invert(a, out);
+                assertEquals(x.modInverse(p), field.toBigInteger(out));
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> field.invert(a, field.newZero()));
+            }
+
+            for (BigInteger y : values) {
+                long[] b = field.fromBigInteger(y);
+                field.add(a, b, out);
+                assertEquals(x.add(y).mod(p), field.toBigInteger(out), x + " + " + y);
+                field.sub(a, b, out);
+                assertEquals(x.subtract(y).mod(p), field.toBigInteger(out), x + " - " + y);
+                field.mul(a, b, out);
+                assertEquals(x.multiply(y).mod(p), field.toBigInteger(out), x + " * " + y);
+                assertEquals(x.equals(y), field.isEqual(a, b));
+
+                // Outputs may alias an input.
+                long[] aliased = a.clone();
+                field.mul(aliased, b, aliased);
+                assertEquals(x.multiply(y).mod(p), field.toBigInteger(aliased));
+            }
+        }
+
+        List<BigInteger> nonZero = values.subList(1, values.size());
+        long[][] batch = new long[nonZero.size()][];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = field.fromBigInteger(nonZero.get(i));
+        }
+        field.batchInvert(batch);
+        for (int i = 0; i < batch.length; i++) {
+            assertEquals(nonZero.get(i).modInverse(p), field.toBigInteger(batch[i]));
+        }
+    }
+
+    @Test
+    void zrMatchesBigInteger() {
+        checkAgainstBigInteger(new MontgomeryZr(pairing.getZr()));
+    }
+
+    @Test
+    void fqMatchesBigInteger() {
+        BigInteger q = PairingFactory.getPairingParameters("a.properties").getBigInteger("q");
+        checkAgainstBigInteger(new MontgomeryFq(q));
+    }
+
+    @Test
+    void zrConversionsMatchJpbc() {
+        Field<Element> Zr = pairing.getZr();
+        MontgomeryZr field = new MontgomeryZr(Zr);
+        for (long value : new long[]{0, 1, -1, -3, 1 << 24, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertTrue(Zr.newElement(BigInteger.valueOf(value)).isEqual(field.toElement(field.fromLong(value))),
+                    "value " + value);
+        }
+
+        Element[] a = new Element[9];
+        Element[] b = new Element[9];
+        Element expected = Zr.newZeroElement();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i == 0 ? Zr.newElement(Zr.getOrder().subtract(BigInteger.ONE)) : Zr.newRandomElement();
+            b[i] = i == 0 ? Zr.newElement(Zr.getOrder().subtract(BigInteger.ONE)) : Zr.newRandomElement();
+            expected.add(a[i].duplicate().mul(b[i]));
+            assertTrue(a[i].isEqual(field.toElement(field.fromElement(a[i]))));
+        }
+        assertTrue(expected.isEqual(field.innerProduct(a, b)));
+    }
+}
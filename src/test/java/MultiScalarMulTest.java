@@ -0,0 +1,68 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the Straus and Pippenger multi-exponentiations against plain JPBC exponentiation.
+ */
+class MultiScalarMulTest {
+
+    private final Pairing pairing = PairingFactory.getPairing("a.properties");
+    private final Random random = new Random(3);
+
+    /**
+     * Returns an exponent cycling through zero, one, short, near-r and random values.
+     */
+    private BigInteger exponent(int i) {
+        BigInteger order = pairing.getZr().getOrder();
+        return switch (i % 6) {
+            case 0 -> BigInteger.ZERO;
+            case 1 -> BigInteger.ONE;
+            case 2 -> BigInteger.valueOf(random.nextInt(1 << 24));
+            case 3 -> order.subtract(BigInteger.ONE);
+            case 4 -> order.subtract(BigInteger.valueOf(random.nextInt(1 << 24) + 2));
+            default -> new BigInteger(order.bitLength(), random).mod(order);
+        };
+    }
+
+    @Test
+    void multiExpMatchesJpbcOnBothSidesOfThePippengerThreshold() {
+        for (Field<Element> field : List.of(pairing.getG1(), pairing.getGT())) {
+            GroupArithmetic<?> arithmetic = GroupArithmetic.of(field);
+            for (int size : new int[]{1, 2, 5, 31, 32, 33, 70}) {
+                Element[] bases = new Element[size];
+                BigInteger[] exponents = new BigInteger[size];
+                Element expected = field.newOneElement();
+                for (int i = 0; i < size; i++) {
+                    bases[i] = field.newRandomElement().getImmutable();
+                    exponents[i] = exponent(i + size);
+                    expected.mul(bases[i].pow(exponents[i]));
+                }
+                assertTrue(expected.isEqual(MultiScalarMul.multiExp(bases, exponents)), "size " + size);
+                assertTrue(expected.isEqual(MultiScalarMul.multiExp(arithmetic, bases, exponents)), "size " + size);
+
+                Arrays.fill(exponents, BigInteger.ZERO);
+                assertTrue(MultiScalarMul.multiExp(bases, exponents).isOne(), "size " + size);
+            }
+        }
+    }
+
+    @Test
+    void rejectsMismatchedOrEmptyInputs() {
+        Element base = pairing.getG1().newRandomElement();
+        assertThrows(IllegalArgumentException.class,
+                () -> MultiScalarMul.multiExp(new Element[0], new BigInteger[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> MultiScalarMul.multiExp(new Element[]{base}, new BigInteger[]{BigInteger.ONE, BigInteger.ONE}));
+    }
+}
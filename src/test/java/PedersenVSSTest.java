@@ -0,0 +1,689 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests share verification on the Type A pairing of {@code a.properties}.
+ */
+class PedersenVSSTest {
+
+    private Pairing pairing;
+    private Element g;
+    private Element h;
+    private PedersenVSS vss;
+
+    @BeforeEach
+    void setUp() {
+        pairing = PairingFactory.getPairing("a.properties");
+        Field<Element> G1 = pairing.getG1();
+        g = G1.newRandomElement().getImmutable();
+        h = G1.newRandomElement().getImmutable();
+        vss = new PedersenVSS(pairing, g, h);
+    }
+
+    private Element newSecret() {
+        Element secret;
+        do {
+            secret = pairing.getZr().newRandomElement();
+        } while (secret.isZero());
+        return secret;
+    }
+
+    /**
+     * Checks g^(f_x) * h^(g_x) = Π C_i^(x^i) with plain JPBC exponentiations, x reduced modulo r.
+     */
+    private boolean verifyPlain(PedersenVSS.Share share, BigInteger x) {
+        Element lhs = g.duplicate().pow(share.value1().toBigInteger())
+                .mul(h.duplicate().pow(share.value2().toBigInteger()));
+        return lhs.isEqual(evaluatePlain(share.commitment(), x));
+    }
+
+    /**
+     * Computes Π C_i^(x^i) with plain JPBC exponentiations, x reduced modulo r.
+     */
+    private Element evaluatePlain(List<Element> commitments, BigInteger x) {
+        BigInteger order = pairing.getZr().getOrder();
+        Element result = pairing.getG1().newOneElement();
+        BigInteger power = BigInteger.ONE;
+        for (Element commitment : commitments) {
+            result.mul(commitment.duplicate().pow(power));
+            power = power.multiply(x).mod(order);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the share of index x of the dealing through the given t shares, interpolated with plain
+     * BigInteger arithmetic modulo r.
+     */
+    private PedersenVSS.Share interpolate(List<PedersenVSS.Share> shares, int x) {
+        BigInteger order = pairing.getZr().getOrder();
+        BigInteger point = BigInteger.valueOf(x);
+        BigInteger value1 = BigInteger.ZERO;
+        BigInteger value2 = BigInteger.ZERO;
+        for (PedersenVSS.Share share : shares) {
+            BigInteger xi = BigInteger.valueOf(share.index());
+            BigInteger lambda = BigInteger.ONE;
+            for (PedersenVSS.Share other : shares) {
+                BigInteger xj = BigInteger.valueOf(other.index());
+                if (!xj.equals(xi)) {
+                    lambda = lambda.multiply(point.subtract(xj)).multiply(xi.subtract(xj).modInverse(order)).mod(order);
+                }
+            }
+            value1 = value1.add(lambda.multiply(share.value1().toBigInteger()));
+            value2 = value2.add(lambda.multiply(share.value2().toBigInteger()));
+        }
+        Field<Element> Zr = pairing.getZr();
+        return new PedersenVSS.Share(x, Zr.newElement(value1.mod(order)).getImmutable(),
+                Zr.newElement(value2.mod(order)).getImmutable(), shares.get(0).commitment());
+    }
+
+    /**
+     * Returns the share with f_x increased by one.
+     */
+    private static PedersenVSS.Share tamper(PedersenVSS.Share share) {
+        Element value1 = share.value1().duplicate().add(share.value1().getField().newOneElement());
+        return new PedersenVSS.Share(share.index(), value1.getImmutable(), share.value2(), share.commitment());
+    }
+
+    /**
+     * Returns the share with g_x increased by one.
+     */
+    private static PedersenVSS.Share tamperBlinding(PedersenVSS.Share share) {
+        Element value2 = share.value2().duplicate().add(share.value2().getField().newOneElement());
+        return new PedersenVSS.Share(share.index(), share.value1(), value2.getImmutable(), share.commitment());
+    }
+
+    /**
+     * Returns the share of participant 1 relabelled with another index.
+     */
+    private static PedersenVSS.Share relabel(PedersenVSS.Share share, int index) {
+        return new PedersenVSS.Share(index, share.value1(), share.value2(), share.commitment());
+    }
+
+    @Test
+    void verifyShareAgreesWithThePlainEquationAtEdgeIndices() {
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 4, 6);
+        // Negative indices are points just below r.
+        int[] indices = {Integer.MIN_VALUE, -(1 << 24), -3, -1, 0, 1, 7, (1 << 24) - 1, 1 << 24, Integer.MAX_VALUE};
+        List<PedersenVSS.Share> batch = new ArrayList<>();
+        for (int index : indices) {
+            PedersenVSS.Share share = interpolate(shares.subList(0, 4), index);
+            PedersenVSS.Share tampered = tamper(share);
+            BigInteger x = BigInteger.valueOf(index);
+            assertTrue(verifyPlain(share, x), "index " + index);
+            assertTrue(vss.verifyShare(share), "index " + index);
+            assertFalse(verifyPlain(tampered, x), "index " + index);
+            assertFalse(vss.verifyShare(tampered), "index " + index);
+            batch.add(share);
+            batch.add(tampered);
+        }
+
+        boolean[] expected = new boolean[batch.size()];
+        for (int i = 0; i < expected.length; i += 2) {
+            expected[i] = true;
+        }
+        assertArrayEquals(expected, vss.verifyShares(batch));
+    }
+
+    @Test
+    void rejectsSharesRelabelledWithNonPositiveIndices() {
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 3, 5);
+        for (int index : new int[]{0, -1, -3, Integer.MIN_VALUE}) {
+            PedersenVSS.Share forged = relabel(shares.get(0), index);
+            assertFalse(vss.verifyShare(forged), "index " + index);
+
+            List<PedersenVSS.Share> batch = new ArrayList<>(shares.subList(1, 5));
+            batch.add(forged);
+            assertArrayEquals(new boolean[]{true, true, true, true, false}, vss.verifyShares(batch), "index " + index);
+
+            PedersenVSS.Share other = relabel(vss.shareSecret(newSecret(), 3, 5).get(0), index);
+            assertArrayEquals(new boolean[]{false, false}, vss.verifyDealings(List.of(forged, other)), "index " + index);
+
+            assertFalse(vss.incrementalReconstructor(3, true).add(forged), "index " + index);
+        }
+    }
+
+    @Test
+    void acceptsSharesBeyondTheShortIndexRange() {
+        int[] indices = {1 << 24, (1 << 24) + 1, Integer.MAX_VALUE};
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 2, indices);
+        for (PedersenVSS.Share share : shares) {
+            assertTrue(vss.verifyShare(share), "index " + share.index());
+        }
+        assertArrayEquals(new boolean[]{true, true, true}, vss.verifyShares(shares));
+        assertFalse(vss.verifyShare(relabel(shares.get(0), -(1 << 24))));
+    }
+
+    @Test
+    void verifySharesFlagsExactlyTheTamperedShares() {
+        List<PedersenVSS.Share> shares = new ArrayList<>(vss.shareSecret(newSecret(), 3, 8));
+        boolean[] expected = new boolean[shares.size()];
+        Arrays.fill(expected, true);
+        assertArrayEquals(expected, vss.verifyShares(shares));
+
+        shares.set(2, tamper(shares.get(2)));
+        shares.set(5, tamperBlinding(shares.get(5)));
+        expected[2] = false;
+        expected[5] = false;
+        assertArrayEquals(expected, vss.verifyShares(shares));
+        assertArrayEquals(new boolean[0], vss.verifyShares(List.of()));
+    }
+
+    @Test
+    void verifyDealingsFlagsExactlyTheTamperedDealings() {
+        List<PedersenVSS.Share> shares = new ArrayList<>();
+        for (int dealer = 0; dealer < 6; dealer++) {
+            shares.add(vss.shareSecret(newSecret(), 3, 5).get(2));
+        }
+        assertArrayEquals(new boolean[]{true, true, true, true, true, true}, vss.verifyDealings(shares));
+
+        shares.set(1, tamper(shares.get(1)));
+        shares.set(4, tamperBlinding(shares.get(4)));
+        assertArrayEquals(new boolean[]{true, false, true, true, false, true}, vss.verifyDealings(shares));
+    }
+
+    @Test
+    void sharesLieOnPolynomialsOfDegreeTMinusOneThroughTheSecret() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 4, 9);
+        assertTrue(secret.isEqual(interpolate(shares.subList(0, 4), 0).value1()));
+        for (PedersenVSS.Share share : shares) {
+            PedersenVSS.Share expected = interpolate(shares.subList(5, 9), share.index());
+            assertTrue(expected.value1().isEqual(share.value1()), "index " + share.index());
+            assertTrue(expected.value2().isEqual(share.value2()), "index " + share.index());
+            assertTrue(vss.verifyShare(share), "index " + share.index());
+        }
+    }
+
+    @Test
+    void forwardDifferenceSharesMatchTheInterpolatedPolynomial() {
+        // n >= 2t steps through forward differences after the first t Horner evaluations, n < 2t does not.
+        for (int[] sizes : new int[][]{{1, 5}, {3, 5}, {3, 6}, {3, 40}, {6, 13}}) {
+            int t = sizes[0];
+            int n = sizes[1];
+            Element secret = newSecret();
+            List<PedersenVSS.Share> shares = vss.shareSecret(secret, t, n);
+            assertTrue(secret.isEqual(interpolate(shares.subList(n - t, n), 0).value1()), "t " + t + ", n " + n);
+            for (PedersenVSS.Share share : shares) {
+                PedersenVSS.Share expected = interpolate(shares.subList(0, t), share.index());
+                assertTrue(expected.value1().isEqual(share.value1()), "t " + t + ", x " + share.index());
+                assertTrue(expected.value2().isEqual(share.value2()), "t " + t + ", x " + share.index());
+            }
+        }
+    }
+
+    /**
+     * Returns the shares with (0, 0), the point of order 2 on y^2 = x^3 + x, multiplied into C_0.
+     */
+    private List<PedersenVSS.Share> withTorsionCommitment(List<PedersenVSS.Share> shares) {
+        Field<Element> G1 = pairing.getG1();
+        Element torsion = G1.newElementFromBytes(new byte[G1.getLengthInBytes()]);
+        List<Element> commitment = new ArrayList<>(shares.get(0).commitment());
+        commitment.set(0, commitment.get(0).duplicate().mul(torsion).getImmutable());
+        List<PedersenVSS.Share> result = new ArrayList<>();
+        for (PedersenVSS.Share share : shares) {
+            result.add(new PedersenVSS.Share(share.index(), share.value1(), share.value2(), commitment));
+        }
+        return result;
+    }
+
+    @Test
+    void rejectsCommitmentsOutsideThePrimeOrderSubgroup() {
+        for (int round = 0; round < 8; round++) {
+            List<PedersenVSS.Share> shares = withTorsionCommitment(vss.shareSecret(newSecret(), 3, 5));
+            assertArrayEquals(new boolean[5], vss.verifyShares(shares));
+
+            List<PedersenVSS.Share> dealings = new ArrayList<>();
+            for (int dealer = 0; dealer < 4; dealer++) {
+                List<PedersenVSS.Share> dealing = vss.shareSecret(newSecret(), 3, 5);
+                dealings.add((dealer % 2 == 0 ? withTorsionCommitment(dealing) : dealing).get(2));
+            }
+            assertArrayEquals(new boolean[]{false, true, false, true}, vss.verifyDealings(dealings));
+        }
+    }
+
+    /**
+     * Returns, for each dealing, the share of the participant with the given index, among t + 1 participants.
+     * Dealings listed in primed are first verified as a whole, which records their commitments as checked.
+     */
+    private List<PedersenVSS.Share> dealingsFor(int index, int t, int dealers, Set<Integer> primed) {
+        int[] indices = new int[t + 1];
+        indices[0] = index;
+        for (int i = 1, other = 1; i < indices.length; i++, other++) {
+            indices[i] = other == index ? ++other : other;
+        }
+        List<PedersenVSS.Share> result = new ArrayList<>();
+        for (int dealer = 0; dealer < dealers; dealer++) {
+            List<PedersenVSS.Share> dealing = vss.shareSecret(newSecret(), t, indices);
+            if (primed.contains(dealer)) {
+                vss.verifyShares(dealing);
+            }
+            result.add(dealing.get(0));
+        }
+        return result;
+    }
+
+    private boolean[] verifyEach(List<PedersenVSS.Share> shares) {
+        boolean[] result = new boolean[shares.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = vss.verifyShare(shares.get(i));
+        }
+        return result;
+    }
+
+    @Test
+    void verifyDealingsAgreesWithVerifyShareWithAndWithoutCheckedCommitments() {
+        for (int index : new int[]{7, (1 << 24) + 1, Integer.MAX_VALUE}) {
+            List<PedersenVSS.Share> shares = new ArrayList<>(dealingsFor(index, 4, 8, Set.of(0, 1, 2, 3, 6)));
+            shares.set(1, tamper(shares.get(1)));
+            shares.set(4, tamper(shares.get(4)));
+            shares.set(5, withTorsionCommitment(List.of(shares.get(5))).get(0));
+            boolean[] expected = {true, false, true, true, false, false, true, true};
+            assertArrayEquals(expected, verifyEach(shares), "index " + index);
+            assertArrayEquals(expected, vss.verifyDealings(shares), "index " + index);
+        }
+    }
+
+    @Test
+    void verifyDealingsRejectsOneBadShareFromOneDealer() {
+        List<PedersenVSS.Share> shares = new ArrayList<>(dealingsFor(7, 20, 100, Set.of()));
+        shares.set(42, tamper(shares.get(42)));
+        boolean[] expected = new boolean[shares.size()];
+        Arrays.fill(expected, true);
+        expected[42] = false;
+        assertArrayEquals(expected, vss.verifyDealings(shares));
+    }
+
+    @Test
+    void evaluateCommitmentsMatchesThePlainProduct() {
+        for (int[] sizes : new int[][]{{1, 4}, {3, 10}, {5, 3}, {6, 1}}) {
+            int t = sizes[0];
+            int n = sizes[1];
+            List<Element> commitments = vss.shareSecret(newSecret(), t, t).get(0).commitment();
+            List<Element> evaluations = vss.evaluateCommitments(commitments, n);
+            assertEquals(n, evaluations.size());
+            for (int x = 1; x <= n; x++) {
+                assertTrue(evaluatePlain(commitments, BigInteger.valueOf(x)).isEqual(evaluations.get(x - 1)),
+                        "t " + t + ", x " + x);
+            }
+        }
+    }
+
+    @Test
+    void rejectsEmptyCommitmentLists() {
+        PedersenVSS.Share share = vss.shareSecret(newSecret(), 2, 3).get(0);
+        PedersenVSS.Share bare = new PedersenVSS.Share(share.index(), share.value1(), share.value2(), List.of());
+        assertThrows(IllegalArgumentException.class, () -> vss.evaluateCommitments(List.of(), 4));
+        assertThrows(IllegalArgumentException.class, () -> vss.evaluateCommitments(List.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> vss.verifyShare(bare));
+        assertThrows(IllegalArgumentException.class, () -> vss.verifyShare(relabel(bare, 1 << 30)));
+        assertThrows(IllegalArgumentException.class, () -> vss.auditShares(List.of(bare)));
+    }
+
+    @Test
+    void auditSharesFlagsTamperedSharesOnDenseAndSparseIndices() {
+        // Dense indices are checked against the tabulated evaluations, sparse ones one share at a time.
+        for (int[] indices : new int[][]{{1, 2, 3, 4, 5, 6}, {2, 5, 6, 8}, {7, 9, 2000000}}) {
+            List<PedersenVSS.Share> shares = new ArrayList<>(vss.shareSecret(newSecret(), 3, indices));
+            shares.set(1, tamper(shares.get(1)));
+            boolean[] expected = new boolean[indices.length];
+            Arrays.fill(expected, true);
+            expected[1] = false;
+            assertArrayEquals(expected, vss.auditShares(shares), Arrays.toString(indices));
+        }
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 2, 3);
+        assertThrows(IllegalArgumentException.class, () -> vss.auditShares(List.of(relabel(shares.get(0), 0))));
+    }
+
+    @Test
+    void verifySharesOnARootsOfUnityDomainAgreesWithThePlainEquation() {
+        int size = 16;
+        PedersenVSS domainVss = new PedersenVSS(pairing, g, h, size);
+        RootsOfUnityDomain domain = new RootsOfUnityDomain(pairing.getZr(), size);
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = domainVss.shareSecret(secret, 5, size);
+        for (PedersenVSS.Share share : shares) {
+            BigInteger x = domain.point(share.index());
+            assertTrue(verifyPlain(share, x), "index " + share.index());
+            assertTrue(domainVss.verifyShare(share), "index " + share.index());
+            assertFalse(domainVss.verifyShare(tamper(share)), "index " + share.index());
+        }
+        assertTrue(secret.isEqual(domainVss.reconstruct(shares.subList(3, 8), 5, size)));
+        assertTrue(secret.isEqual(domainVss.reconstruct(shares, 5, size)));
+    }
+
+    @Test
+    void rejectsSharesOutsideARootsOfUnityDomain() {
+        int size = 16;
+        PedersenVSS domainVss = new PedersenVSS(pairing, g, h, size);
+        List<PedersenVSS.Share> shares = domainVss.shareSecret(newSecret(), 5, size);
+        for (int index : new int[]{0, -1, size + 1, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            assertFalse(domainVss.verifyShare(relabel(shares.get(0), index)), "index " + index);
+        }
+
+        List<PedersenVSS.Share> relabeled = new ArrayList<>(shares.subList(0, 4));
+        relabeled.set(2, relabel(relabeled.get(2), size + 1));
+        assertArrayEquals(new boolean[]{true, true, false, true}, domainVss.verifyShares(relabeled));
+    }
+
+    @Test
+    void sharesToSparseIndicesLieOnTheCommittedPolynomial() {
+        Element secret = newSecret();
+        int[] indices = {5, 17, 1000, 1 << 24, Integer.MAX_VALUE};
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, indices);
+        assertEquals(indices.length, shares.size());
+        assertTrue(secret.isEqual(interpolate(shares.subList(2, 5), 0).value1()));
+        for (int i = 0; i < indices.length; i++) {
+            PedersenVSS.Share share = shares.get(i);
+            assertEquals(indices[i], share.index());
+            PedersenVSS.Share expected = interpolate(shares.subList(0, 3), share.index());
+            assertTrue(expected.value1().isEqual(share.value1()), "index " + share.index());
+            assertTrue(expected.value2().isEqual(share.value2()), "index " + share.index());
+            assertTrue(vss.verifyShare(share), "index " + share.index());
+        }
+    }
+
+    @Test
+    void reconstructsTheSecretFromAnyQuorumInAnyOrder() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 4, 7);
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(0, 4), 4, 7)));
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(3, 7), 4, 7)));
+        assertTrue(secret.isEqual(vss.reconstruct(List.of(shares.get(6), shares.get(0), shares.get(3), shares.get(2)),
+                4, 7)));
+        assertTrue(secret.isEqual(vss.reconstruct(shares, 4, 7)));
+        assertFalse(secret.isEqual(vss.reconstruct(shares.subList(0, 3), 3, 7)));
+    }
+
+    @Test
+    void reconstructsFromQuorumsOfACommittee() {
+        // Six of eight participants are combined through the two absent ones, two of eight directly.
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 2, 8);
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(2, 8), 2, 8)));
+        assertTrue(secret.isEqual(vss.reconstruct(List.of(shares.get(5), shares.get(1)), 2, 8)));
+    }
+
+    @Test
+    void reusesTheCoefficientsOfARepeatedOrPermutedQuorum() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 8);
+        List<PedersenVSS.Share> quorum = List.of(shares.get(1), shares.get(4), shares.get(6));
+        List<PedersenVSS.Share> permuted = List.of(shares.get(6), shares.get(1), shares.get(4));
+        assertTrue(secret.isEqual(vss.reconstruct(quorum, 3, 8)));
+        assertEquals(0, vss.lagrangeCacheHits());
+        assertEquals(1, vss.lagrangeCacheMisses());
+        assertTrue(secret.isEqual(vss.reconstruct(quorum, 3, 8)));
+        assertTrue(secret.isEqual(vss.reconstruct(permuted, 3, 8)));
+        assertEquals(2, vss.lagrangeCacheHits());
+        assertEquals(1, vss.lagrangeCacheMisses());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedQuorumBeyondTheCacheCapacity() {
+        // One more quorum than the 1024 the cache keeps, touching the first one before the last is added.
+        int capacity = 1024;
+        int n = capacity + 2;
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 2, n);
+        for (int j = 1; j <= capacity; j++) {
+            vss.reconstruct(List.of(shares.get(0), shares.get(j)), 2, n);
+        }
+        vss.reconstruct(List.of(shares.get(0), shares.get(1)), 2, n);
+        vss.reconstruct(List.of(shares.get(0), shares.get(capacity + 1)), 2, n);
+        assertEquals(1, vss.lagrangeCacheHits());
+        assertEquals(capacity + 1, vss.lagrangeCacheMisses());
+
+        // {1, 2} was touched and survives, {1, 3} was the eldest and is computed again.
+        assertTrue(secret.isEqual(vss.reconstruct(List.of(shares.get(0), shares.get(1)), 2, n)));
+        assertEquals(2, vss.lagrangeCacheHits());
+        assertTrue(secret.isEqual(vss.reconstruct(List.of(shares.get(0), shares.get(2)), 2, n)));
+        assertEquals(capacity + 2, vss.lagrangeCacheMisses());
+    }
+
+    @Test
+    void reconstructAllSplitsLargeBatchesAcrossThreads() {
+        // 256 secrets take the parallel branch, the first 255 the sequential one.
+        int[] quorum = {4, 1, 5};
+        List<Element> secrets = new ArrayList<>();
+        List<List<PedersenVSS.Share>> shareSets = new ArrayList<>();
+        for (int s = 0; s < 256; s++) {
+            secrets.add(newSecret());
+            List<PedersenVSS.Share> shares = vss.shareSecret(secrets.get(s), 3, 5);
+            shareSets.add(List.of(shares.get(quorum[0] - 1), shares.get(quorum[1] - 1), shares.get(quorum[2] - 1)));
+        }
+        for (int size : new int[]{255, 256}) {
+            List<Element> reconstructed = vss.reconstructAll(shareSets.subList(0, size), 3, 5);
+            assertEquals(size, reconstructed.size());
+            for (int s = 0; s < size; s++) {
+                assertTrue(secrets.get(s).isEqual(reconstructed.get(s)), "secret " + s);
+            }
+        }
+        assertTrue(vss.reconstructAll(List.of(), 3, 5).isEmpty());
+    }
+
+    @Test
+    void reconstructAllRejectsShareSetsOfOtherQuorums() {
+        List<PedersenVSS.Share> first = vss.shareSecret(newSecret(), 3, 5);
+        List<PedersenVSS.Share> second = vss.shareSecret(newSecret(), 3, 5);
+        List<PedersenVSS.Share> quorum = first.subList(0, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructAll(List.of(quorum, second.subList(1, 4)), 3, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructAll(List.of(quorum, List.of(second.get(1), second.get(0), second.get(2))), 3, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructAll(List.of(quorum, second.subList(0, 4)), 3, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructAll(List.of(first.subList(0, 2), second.subList(0, 2)), 3, 5));
+    }
+
+    @Test
+    void reconstructOptimisticReturnsTheSecretOfACleanQuorum() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 6);
+        assertTrue(secret.isEqual(vss.reconstructOptimistic(shares.subList(2, 5), 3, 6)));
+        assertTrue(secret.isEqual(vss.reconstructOptimistic(shares, 3, 6)));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructOptimistic(shares.subList(0, 2), 3, 6));
+    }
+
+    @Test
+    void reconstructOptimisticFallsBackToVerifiedSharesAfterATamperedOne() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = new ArrayList<>(vss.shareSecret(secret, 3, 6));
+        shares.set(1, tamper(shares.get(1)));
+        assertTrue(secret.isEqual(vss.reconstructOptimistic(shares, 3, 6)));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructOptimistic(shares.subList(0, 3), 3, 6));
+    }
+
+    @Test
+    void reconstructOptimisticNeedsAsManySharesAsCommitments() {
+        // The dealing has threshold 3 whatever threshold the caller passes.
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 6);
+        assertTrue(secret.isEqual(vss.reconstructOptimistic(shares.subList(0, 3), 2, 6)));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructOptimistic(shares.subList(0, 2), 2, 6));
+    }
+
+    @Test
+    void sharesConsistentAcceptsAnyValuesWithoutSurplusShares() {
+        List<PedersenVSS.Share> shares = new ArrayList<>(vss.shareSecret(newSecret(), 3, 6).subList(0, 3));
+        assertTrue(vss.sharesConsistent(shares, 3));
+        shares.set(0, tamper(shares.get(0)));
+        shares.set(2, tamperBlinding(shares.get(2)));
+        assertTrue(vss.sharesConsistent(shares, 3));
+        assertTrue(vss.sharesConsistent(shares.subList(0, 2), 3));
+    }
+
+    @Test
+    void sharesConsistentDetectsACorruptedValueOfEitherPolynomial() {
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 3, 7);
+        assertTrue(vss.sharesConsistent(shares, 3));
+        assertTrue(vss.sharesConsistent(shares.subList(2, 6), 3));
+        for (int position = 0; position < shares.size(); position++) {
+            List<PedersenVSS.Share> corrupted = new ArrayList<>(shares);
+            corrupted.set(position, tamper(shares.get(position)));
+            assertFalse(vss.sharesConsistent(corrupted, 3), "value1 of share " + position);
+            corrupted.set(position, tamperBlinding(shares.get(position)));
+            assertFalse(vss.sharesConsistent(corrupted, 3), "value2 of share " + position);
+        }
+    }
+
+    @Test
+    void reconstructCheckedInterpolatesFromTheFirstTShares() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 6);
+        List<PedersenVSS.Share> ordered = List.of(shares.get(5), shares.get(1), shares.get(3), shares.get(0),
+                shares.get(4));
+        assertTrue(secret.isEqual(vss.reconstructChecked(ordered, 3, 6)));
+
+        // Only the quorum of the first three shares was computed, so reconstructing from it is a cache hit.
+        assertEquals(1, vss.lagrangeCacheMisses());
+        vss.reconstruct(ordered.subList(0, 3), 3, 6);
+        assertEquals(1, vss.lagrangeCacheHits());
+        assertEquals(1, vss.lagrangeCacheMisses());
+
+        List<PedersenVSS.Share> corrupted = new ArrayList<>(ordered);
+        corrupted.set(4, tamperBlinding(ordered.get(4)));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructChecked(corrupted, 3, 6));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructChecked(ordered.subList(0, 2), 3, 6));
+    }
+
+    /**
+     * Returns the shares with the values at the given positions tampered with, value1 or value2.
+     */
+    private static List<PedersenVSS.Share> corrupt(List<PedersenVSS.Share> shares, boolean blinding, int... positions) {
+        List<PedersenVSS.Share> corrupted = new ArrayList<>(shares);
+        for (int position : positions) {
+            PedersenVSS.Share share = corrupted.get(position);
+            corrupted.set(position, blinding ? tamperBlinding(share) : tamper(share));
+        }
+        return corrupted;
+    }
+
+    @Test
+    void reconstructCorrectingCorrectsUpToHalfTheSurplusShares() {
+        // k = 9 and t = 3 correct up to 3 wrong values of each polynomial.
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 9);
+
+        PedersenVSS.Decoding clean = vss.reconstructCorrecting(shares, 3);
+        assertTrue(secret.isEqual(clean.secret()));
+        assertEquals(List.of(), clean.wrongIndices());
+
+        PedersenVSS.Decoding decoding = vss.reconstructCorrecting(corrupt(shares, false, 7, 1, 4), 3);
+        assertTrue(secret.isEqual(decoding.secret()));
+        assertEquals(List.of(2, 5, 8), decoding.wrongIndices());
+
+        // Wrong values of g only leave f intact but still mark the shares as wrong.
+        decoding = vss.reconstructCorrecting(corrupt(shares, true, 0, 8), 3);
+        assertTrue(secret.isEqual(decoding.secret()));
+        assertEquals(List.of(1, 9), decoding.wrongIndices());
+
+        // Three wrong values of each polynomial, at different shares.
+        List<PedersenVSS.Share> both = corrupt(corrupt(shares, false, 0, 2, 4), true, 5, 6, 7);
+        decoding = vss.reconstructCorrecting(both, 3);
+        assertTrue(secret.isEqual(decoding.secret()));
+        assertEquals(List.of(1, 3, 5, 6, 7, 8), decoding.wrongIndices());
+    }
+
+    @Test
+    void reconstructCorrectingRejectsOneErrorBeyondCapacity() {
+        List<PedersenVSS.Share> shares = vss.shareSecret(newSecret(), 3, 9);
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructCorrecting(corrupt(shares, false, 0, 3, 5, 8), 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> vss.reconstructCorrecting(corrupt(shares, true, 1, 2, 6, 7), 3));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructCorrecting(shares.subList(0, 2), 3));
+    }
+
+    @Test
+    void reconstructCorrectingDecodesOnARootsOfUnityDomain() {
+        int size = 16;
+        PedersenVSS domainVss = new PedersenVSS(pairing, g, h, size);
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = domainVss.shareSecret(secret, 4, size);
+
+        // k = 16 and t = 4 correct up to 6 wrong values.
+        PedersenVSS.Decoding decoding = domainVss.reconstructCorrecting(corrupt(shares, false, 0, 3, 6, 9, 12, 15), 4);
+        assertTrue(secret.isEqual(decoding.secret()));
+        assertEquals(List.of(1, 4, 7, 10, 13, 16), decoding.wrongIndices());
+        assertThrows(IllegalArgumentException.class,
+                () -> domainVss.reconstructCorrecting(corrupt(shares, false, 0, 2, 3, 6, 9, 12, 15), 4));
+    }
+
+    /**
+     * Returns the partial results B^f(x_i) of the given shares, keyed by index.
+     */
+    private static Map<Integer, Element> partials(Element base, List<PedersenVSS.Share> shares) {
+        Map<Integer, Element> partials = new LinkedHashMap<>();
+        for (PedersenVSS.Share share : shares) {
+            partials.put(share.index(), base.duplicate().pow(share.value1().toBigInteger()).getImmutable());
+        }
+        return partials;
+    }
+
+    @Test
+    void combineInExponentMatchesTheBaseRaisedToTheSecretInG1AndGT() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 4, 7);
+        for (Field<Element> group : List.of(pairing.getG1(), pairing.getGT())) {
+            String name = group == pairing.getG1() ? "G1" : "GT";
+            Element base = group.newRandomElement().getImmutable();
+            Element expected = base.duplicate().pow(secret.toBigInteger());
+            assertTrue(expected.isEqual(vss.combineInExponent(partials(base, shares.subList(0, 4)), 4, 7)), name);
+            assertTrue(expected.isEqual(vss.combineInExponent(partials(base, shares.subList(2, 7)), 4, 7)), name);
+            assertThrows(IllegalArgumentException.class,
+                    () -> vss.combineInExponent(partials(base, shares.subList(0, 3)), 4, 7));
+        }
+    }
+
+    @Test
+    void combineInExponentReusesTheCoefficientsOfARepeatedQuorum() {
+        Element secret = newSecret();
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, 6);
+        Element base = pairing.getGT().newRandomElement().getImmutable();
+        Map<Integer, Element> partials = partials(base, shares.subList(1, 4));
+        vss.combineInExponent(partials, 3, 6);
+        assertEquals(0, vss.lagrangeCacheHits());
+        vss.combineInExponent(partials, 3, 6);
+        assertEquals(1, vss.lagrangeCacheHits());
+
+        // The quorum cache is shared with reconstruction.
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(1, 4), 3, 6)));
+        assertEquals(2, vss.lagrangeCacheHits());
+        assertEquals(1, vss.lagrangeCacheMisses());
+    }
+
+    @Test
+    void reconstructOptimisticRejectsACommitmentCarryingTorsion() {
+        List<PedersenVSS.Share> shares = withTorsionCommitment(vss.shareSecret(newSecret(), 3, 6));
+        assertThrows(IllegalArgumentException.class, () -> vss.reconstructOptimistic(shares, 3, 6));
+    }
+
+    @Test
+    void reconstructsFromSmallAndLargeQuorumsOfACommittee() {
+        Element secret = newSecret();
+        int n = 64;
+        List<PedersenVSS.Share> shares = vss.shareSecret(secret, 3, n);
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(n - 3, n), 3, n)));
+        assertTrue(secret.isEqual(vss.reconstruct(shares.subList(n / 2, n), 3, n)));
+    }
+}
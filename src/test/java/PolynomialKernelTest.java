@@ -0,0 +1,62 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the SIMD polynomial kernel against Horner's method on JPBC elements.
+ */
+class PolynomialKernelTest {
+
+    @Test
+    void evaluateMatchesJpbcHorner() {
+        Field<Element> Zr = PairingFactory.getPairing("a.properties").getZr();
+        BigInteger order = Zr.getOrder();
+        PolynomialKernel kernel = PolynomialKernel.vectorized(Zr);
+        assertNotNull(kernel, "the tests run with jdk.incubator.vector");
+
+        Random random = new Random(5);
+        for (int t : new int[]{1, 2, 7, 33}) {
+            List<Element> f = new ArrayList<>();
+            List<Element> g = new ArrayList<>();
+            for (int i = 0; i < t; i++) {
+                f.add(i == 0 ? Zr.newElement(order.subtract(BigInteger.ONE)) : Zr.newRandomElement());
+                g.add(Zr.newRandomElement());
+            }
+
+            // A point count that is not a multiple of the lanes, with zero, short and near-r points.
+            List<BigInteger> points = new ArrayList<>(List.of(BigInteger.ZERO, BigInteger.ONE,
+                    BigInteger.valueOf((1 << 24) - 1), BigInteger.valueOf(1 << 24),
+                    order.subtract(BigInteger.ONE), order.subtract(BigInteger.valueOf(3))));
+            while (points.size() < 2 * kernel.lanes() + 3) {
+                points.add(new BigInteger(order.bitLength(), random).mod(order));
+            }
+
+            BigInteger[] x = points.toArray(new BigInteger[0]);
+            Element[] fValues = new Element[x.length];
+            Element[] gValues = new Element[x.length];
+            kernel.evaluate(f, g, x, fValues, gValues);
+            for (int j = 0; j < x.length; j++) {
+                assertTrue(horner(Zr, f, x[j]).isEqual(fValues[j]), "t " + t + ", x " + x[j]);
+                assertTrue(horner(Zr, g, x[j]).isEqual(gValues[j]), "t " + t + ", x " + x[j]);
+            }
+        }
+    }
+
+    private static Element horner(Field<Element> Zr, List<Element> coefficients, BigInteger x) {
+        Element point = Zr.newElement(x);
+        Element result = Zr.newZeroElement();
+        for (int i = coefficients.size() - 1; i >= 0; i--) {
+            result.mul(point).add(coefficients.get(i));
+        }
+        return result;
+    }
+}
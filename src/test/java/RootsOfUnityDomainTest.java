@@ -0,0 +1,105 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the roots-of-unity domain against plain evaluation and interpolation on JPBC elements.
+ */
+class RootsOfUnityDomainTest {
+
+    private final Field<Element> Zr = PairingFactory.getPairing("a.properties").getZr();
+    private final Random random = new Random(6);
+
+    private Element[] randomPolynomial(int length) {
+        Element[] p = new Element[length];
+        for (int i = 0; i < length; i++) {
+            p[i] = Zr.newRandomElement().getImmutable();
+        }
+        return p;
+    }
+
+    private Element horner(Element[] p, BigInteger x) {
+        Element point = Zr.newElement(x);
+        Element result = Zr.newZeroElement();
+        for (int i = p.length - 1; i >= 0; i--) {
+            result.mul(point).add(p[i]);
+        }
+        return result;
+    }
+
+    @Test
+    void pointsAreTheRootsOfUnity() {
+        int size = 32;
+        RootsOfUnityDomain domain = new RootsOfUnityDomain(Zr, size);
+        BigInteger order = Zr.getOrder();
+        BigInteger omega = domain.point(2);
+        assertEquals(BigInteger.ONE, domain.point(1));
+        assertEquals(BigInteger.ONE, omega.modPow(BigInteger.valueOf(size), order));
+        assertFalse(omega.modPow(BigInteger.valueOf(size / 2), order).equals(BigInteger.ONE));
+        for (int index = 1; index <= size; index++) {
+            assertEquals(omega.modPow(BigInteger.valueOf(index - 1), order), domain.point(index));
+        }
+        for (int index : new int[]{Integer.MIN_VALUE, -1, 0, size + 1}) {
+            assertThrows(IllegalArgumentException.class, () -> domain.point(index));
+        }
+    }
+
+    @Test
+    void evaluateAndMultiplyMatchPlainArithmetic() {
+        for (int size : new int[]{1, 2, 16, 64}) {
+            RootsOfUnityDomain domain = new RootsOfUnityDomain(Zr, size);
+            for (int length : new int[]{1, (size + 1) / 2, size}) {
+                Element[] p = randomPolynomial(length);
+                Element[] values = domain.evaluate(List.of(p));
+                for (int index = 1; index <= size; index++) {
+                    assertTrue(horner(p, domain.point(index)).isEqual(values[index - 1]), "size " + size);
+                }
+            }
+
+            Element[] a = randomPolynomial(size / 2 + 1);
+            Element[] b = randomPolynomial((size + 1) / 2);
+            Element[] product = domain.multiply(a, b);
+            assertEquals(a.length + b.length - 1, product.length);
+            BigInteger x = new BigInteger(Zr.getOrder().bitLength(), random).mod(Zr.getOrder());
+            assertTrue(horner(a, x).mul(horner(b, x)).isEqual(horner(product, x)), "size " + size);
+        }
+    }
+
+    @Test
+    void interpolateAtZeroMatchesTheConstantTerm() {
+        int size = 64;
+        RootsOfUnityDomain domain = new RootsOfUnityDomain(Zr, size);
+        for (int k : new int[]{1, 5, 32, 63, 64}) {
+            Element[] p = randomPolynomial(k);
+            List<Integer> all = new ArrayList<>();
+            for (int index = 1; index <= size; index++) {
+                all.add(index);
+            }
+            Collections.shuffle(all, random);
+            int[] indices = new int[k];
+            Element[] values = new Element[k];
+            for (int i = 0; i < k; i++) {
+                indices[i] = all.get(i);
+                values[i] = horner(p, domain.point(indices[i]));
+            }
+            assertTrue(p[0].isEqual(domain.interpolateAtZero(indices, values)), "k " + k);
+        }
+        assertThrows(IllegalArgumentException.class, () -> domain.interpolateAtZero(new int[0], new Element[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> domain.interpolateAtZero(new int[]{0}, new Element[]{Zr.newOneElement()}));
+        assertThrows(IllegalArgumentException.class,
+                () -> domain.interpolateAtZero(new int[]{3, 3}, new Element[]{Zr.newOneElement(), Zr.newOneElement()}));
+    }
+}
@@ -0,0 +1,69 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the Jacobian group law of Type A G1 against JPBC, including the exceptional cases of the addition
+ * formula.
+ */
+class TypeACurveTest {
+
+    private final Field<Element> G1 = PairingFactory.getPairing("a.properties").getG1();
+
+    @Test
+    void groupLawMatchesJpbc() {
+        TypeACurve curve = TypeACurve.forField(G1);
+        assertNotNull(curve);
+        Element p = G1.newRandomElement().getImmutable();
+        Element q = G1.newRandomElement().getImmutable();
+        Element identity = G1.newOneElement().getImmutable();
+
+        // Generic sum, doubling through mul, P + (-P), and sums with the identity on either side.
+        Element[][] pairs = {{p, q}, {p, p}, {p, p.duplicate().invert()}, {p, identity}, {identity, p},
+                {identity, identity}};
+        for (Element[] pair : pairs) {
+            Element expected = pair[0].duplicate().mul(pair[1]);
+            TypeACurve.Jacobian sum = curve.fromElement(pair[0]);
+            curve.mul(sum, curve.fromElement(pair[1]));
+            assertTrue(expected.isEqual(curve.toElement(sum)), pair[0] + " * " + pair[1]);
+            assertTrue(curve.isEqual(curve.fromElement(expected), sum));
+
+            // The same sum with a non-normalized accumulator, which takes the general instead of the mixed formula.
+            TypeACurve.Jacobian doubled = curve.fromElement(pair[0]);
+            curve.square(doubled);
+            curve.mul(doubled, curve.fromElement(pair[1]));
+            assertTrue(pair[0].duplicate().square().mul(pair[1]).isEqual(curve.toElement(doubled)));
+        }
+
+        TypeACurve.Jacobian square = curve.fromElement(q);
+        curve.square(square);
+        assertTrue(q.duplicate().square().isEqual(curve.toElement(square)));
+        TypeACurve.Jacobian inverse = curve.fromElement(q);
+        curve.invert(inverse);
+        assertTrue(q.duplicate().invert().isEqual(curve.toElement(inverse)));
+
+        List<TypeACurve.Jacobian> points = new ArrayList<>();
+        List<Element> expected = new ArrayList<>();
+        Element running = p.duplicate();
+        TypeACurve.Jacobian accumulator = curve.fromElement(p);
+        for (int i = 0; i < 5; i++) {
+            points.add(curve.copy(accumulator));
+            expected.add(running.duplicate());
+            curve.mul(accumulator, accumulator);
+            running.square();
+        }
+        points.add(curve.identity());
+        expected.add(identity);
+        List<Element> converted = curve.toElements(points);
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i).isEqual(converted.get(i)), "point " + i);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests wNAF recoding and exponentiation against plain JPBC exponentiation.
+ */
+class WindowedNafTest {
+
+    private Pairing pairing;
+    private final Random random = new Random(1);
+
+    @BeforeEach
+    void setUp() {
+        pairing = PairingFactory.getPairing("a.properties");
+    }
+
+    /**
+     * Returns small, short-index, near-r and random exponents.
+     */
+    private List<BigInteger> exponents() {
+        BigInteger order = pairing.getZr().getOrder();
+        List<BigInteger> exponents = new ArrayList<>();
+        for (long value : new long[]{0, 1, 2, 3, 7, (1 << 24) - 1, 1 << 24, Long.MAX_VALUE}) {
+            exponents.add(BigInteger.valueOf(value));
+        }
+        exponents.add(order.subtract(BigInteger.TWO));
+        exponents.add(order.subtract(BigInteger.ONE));
+        exponents.add(order);
+        exponents.add(order.add(BigInteger.ONE));
+        for (int i = 0; i < 8; i++) {
+            exponents.add(new BigInteger(order.bitLength(), random));
+        }
+        return exponents;
+    }
+
+    @Test
+    void digitsRecodeTheExponent() {
+        for (BigInteger exponent : exponents()) {
+            for (int width = 2; width <= 8; width++) {
+                int[] digits = WindowedNaf.digits(exponent, width);
+                assertTrue(digits.length <= exponent.bitLength() + 1);
+                BigInteger value = BigInteger.ZERO;
+                int lastNonZero = -width;
+                for (int i = digits.length - 1; i >= 0; i--) {
+                    value = value.shiftLeft(1).add(BigInteger.valueOf(digits[i]));
+                }
+                for (int i = 0; i < digits.length; i++) {
+                    if (digits[i] != 0) {
+                        assertTrue((digits[i] & 1) == 1 && Math.abs(digits[i]) < 1 << (width - 1));
+                        assertTrue(i - lastNonZero >= width, "digits closer than the window width");
+                        lastNonZero = i;
+                    }
+                }
+                assertEquals(exponent, value, "width " + width);
+            }
+        }
+    }
+
+    @Test
+    void powMatchesJpbc() {
+        for (Field<Element> field : List.of(pairing.getG1(), pairing.getGT())) {
+            GroupArithmetic<?> arithmetic = GroupArithmetic.of(field);
+            Element base = field.newRandomElement().getImmutable();
+            for (BigInteger exponent : exponents()) {
+                assertTrue(base.pow(exponent).isEqual(pow(arithmetic, base, exponent)), "exponent " + exponent);
+            }
+        }
+    }
+
+    @Test
+    void rejectsNegativeExponents() {
+        Field<Element> G1 = pairing.getG1();
+        GroupArithmetic<?> arithmetic = GroupArithmetic.of(G1);
+        for (long exponent : new long[]{-1, -3, Long.MIN_VALUE}) {
+            BigInteger value = BigInteger.valueOf(exponent);
+            assertThrows(IllegalArgumentException.class, () -> WindowedNaf.digits(value, 2));
+            assertThrows(IllegalArgumentException.class, () -> pow(arithmetic, G1.newRandomElement(), value));
+        }
+    }
+
+    private static <P> Element pow(GroupArithmetic<P> arithmetic, Element base, BigInteger exponent) {
+        return arithmetic.toElement(WindowedNaf.pow(arithmetic, arithmetic.fromElement(base), exponent));
+    }
+}
@@ -0,0 +1,192 @@
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the Karatsuba, NTT and Newton paths of the Zr polynomial arithmetic and the subproduct tree against
+ * schoolbook arithmetic on JPBC elements.
+ */
+class ZrPolynomialsTest {
+
+    private final Field<Element> Zr = PairingFactory.getPairing("a.properties").getZr();
+    private final ZrPolynomials polynomials = new ZrPolynomials(Zr);
+    private final Random random = new Random(7);
+
+    private Element[] randomPolynomial(int length) {
+        Element[] p = new Element[length];
+        for (int i = 0; i < length; i++) {
+            p[i] = Zr.newRandomElement().getImmutable();
+        }
+        return p;
+    }
+
+    private Element[] schoolbook(Element[] a, Element[] b) {
+        Element[] product = new Element[a.length + b.length - 1];
+        for (int i = 0; i < product.length; i++) {
+            product[i] = Zr.newZeroElement();
+        }
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                product[i + j].add(a[i].duplicate().mul(b[j]));
+            }
+        }
+        return product;
+    }
+
+    private Element horner(Element[] p, BigInteger x) {
+        Element point = Zr.newElement(x);
+        Element result = Zr.newZeroElement();
+        for (int i = p.length - 1; i >= 0; i--) {
+            result.mul(point).add(p[i]);
+        }
+        return result;
+    }
+
+    private static void assertPolynomialEquals(Element[] expected, Element[] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(expected[i].isEqual(actual[i]), message + ", coefficient " + i);
+        }
+    }
+
+    @Test
+    void multiplyMatchesSchoolbookAcrossThresholds() {
+        // Schoolbook below 24, Karatsuba from 24, NTT from 48 coefficients of the shorter factor.
+        int[][] lengths = {{1, 1}, {3, 40}, {23, 23}, {24, 24}, {30, 70}, {47, 47}, {48, 48}, {64, 100}};
+        for (int[] length : lengths) {
+            Element[] a = randomPolynomial(length[0]);
+            Element[] b = randomPolynomial(length[1]);
+            assertPolynomialEquals(schoolbook(a, b), polynomials.multiply(a, b), length[0] + " x " + length[1]);
+        }
+    }
+
+    @Test
+    void remainderSatisfiesTheDivisionIdentity() {
+        // Schoolbook division below a quotient of 48 coefficients, Newton division from there.
+        int[][] lengths = {{3, 5}, {10, 4}, {60, 20}, {100, 20}, {160, 60}};
+        for (int[] length : lengths) {
+            Element[] a = randomPolynomial(length[0]);
+            Element[] b = randomPolynomial(length[1]);
+            b[b.length - 1] = Zr.newOneElement().getImmutable();
+            Element[] remainder = polynomials.remainder(a, b);
+            assertEquals(b.length - 1, remainder.length);
+
+            // a = q * b + rem, with q from plain long division.
+            Element[] quotient = quotient(a, b);
+            Element[] reconstructed = quotient.length == 0 ? new Element[0] : schoolbook(quotient, b);
+            for (int i = 0; i < a.length; i++) {
+                Element expected = i < reconstructed.length ? reconstructed[i].duplicate() : Zr.newZeroElement();
+                if (i < remainder.length) {
+                    expected.add(remainder[i]);
+                }
+                assertTrue(a[i].isEqual(expected), length[0] + " mod " + length[1] + ", coefficient " + i);
+            }
+        }
+    }
+
+    /**
+     * Long division by a monic divisor, returning the quotient.
+     */
+    private Element[] quotient(Element[] a, Element[] b) {
+        int divisorDegree = b.length - 1;
+        if (a.length <= divisorDegree) {
+            return new Element[0];
+        }
+        Element[] rest = new Element[a.length];
+        for (int i = 0; i < a.length; i++) {
+            rest[i] = a[i].duplicate();
+        }
+        Element[] quotient = new Element[a.length - divisorDegree];
+        for (int i = quotient.length - 1; i >= 0; i--) {
+            quotient[i] = rest[i + divisorDegree].duplicate();
+            for (int j = 0; j < b.length; j++) {
+                rest[i + j].sub(quotient[i].duplicate().mul(b[j]));
+            }
+        }
+        return quotient;
+    }
+
+    @Test
+    void subproductTreeMatchesHorner() {
+        BigInteger order = Zr.getOrder();
+        for (int count : new int[]{1, 2, 7, 64}) {
+            BigInteger[] points = new BigInteger[count];
+            for (int i = 0; i < count; i++) {
+                points[i] = switch (i % 4) {
+                    case 0 -> BigInteger.valueOf(i);
+                    case 1 -> order.subtract(BigInteger.valueOf(i));
+                    case 2 -> BigInteger.valueOf((1 << 24) + i);
+                    default -> new BigInteger(order.bitLength(), random).mod(order);
+                };
+            }
+            ZrPolynomials.SubproductTree tree = polynomials.new SubproductTree(points);
+
+            Element[] product = {Zr.newOneElement()};
+            for (BigInteger point : points) {
+                product = schoolbook(product, new Element[]{Zr.newElement(point).negate(), Zr.newOneElement()});
+            }
+            assertPolynomialEquals(product, tree.product(), "count " + count);
+
+            Element[] p = randomPolynomial(count + 5);
+            Element[] values = tree.evaluate(p);
+            for (int i = 0; i < count; i++) {
+                assertTrue(horner(p, points[i]).isEqual(values[i]), "x " + points[i]);
+            }
+        }
+    }
+
+    @Test
+    void subproductTreeEvaluatesConcurrentlyWhileItsInversesGrow() throws Exception {
+        // Longer polynomials need longer cached inverses at the root, so threads extend them while others read.
+        BigInteger order = Zr.getOrder();
+        BigInteger[] points = new BigInteger[128];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new BigInteger(order.bitLength(), random).mod(order);
+        }
+        ZrPolynomials.SubproductTree tree = polynomials.new SubproductTree(points);
+        List<Element[]> inputs = new ArrayList<>();
+        List<Element[]> expected = new ArrayList<>();
+        for (int length : new int[]{points.length + 60, points.length + 150, points.length + 400}) {
+            Element[] p = randomPolynomial(length);
+            Element[] values = new Element[points.length];
+            for (int i = 0; i < points.length; i++) {
+                values[i] = horner(p, points[i]);
+            }
+            inputs.add(p);
+            expected.add(values);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int first = thread;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < inputs.size(); j++) {
+                        int which = (first + j) % inputs.size();
+                        assertPolynomialEquals(expected.get(which), tree.evaluate(inputs.get(which)),
+                                "polynomial " + which);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}